@@ -0,0 +1,74 @@
+package yandex.praktikum.aqa.task;
+
+import yandex.praktikum.aqa.task.rules.PricingRules;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a columnar pricing batch in halves until it is small enough to be priced on one thread
+ */
+class BatchPricingTask extends RecursiveAction {
+
+    static final int THRESHOLD = 8192;
+
+    private final DeliveryManager deliveryManager;
+    private final Tariff tariff;
+    private final PricingRules rules;
+    private final int from;
+    private final int to;
+    private final double[] distances;
+    private final byte[] goodsDimensions;
+    private final boolean[] fragileGoods;
+    private final int[] deliveryServiceWorkloads;
+    private final long[] costs;
+    private final BigDecimal[] decimalCosts;
+    private final byte[] statuses;
+
+    private BatchPricingTask(DeliveryManager deliveryManager, Tariff tariff, PricingRules rules, int from, int to,
+                             double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                             int[] deliveryServiceWorkloads, long[] costs, BigDecimal[] decimalCosts, byte[] statuses) {
+        this.deliveryManager = deliveryManager;
+        this.tariff = tariff;
+        this.rules = rules;
+        this.from = from;
+        this.to = to;
+        this.distances = distances;
+        this.goodsDimensions = goodsDimensions;
+        this.fragileGoods = fragileGoods;
+        this.deliveryServiceWorkloads = deliveryServiceWorkloads;
+        this.costs = costs;
+        this.decimalCosts = decimalCosts;
+        this.statuses = statuses;
+    }
+
+    static void invoke(ForkJoinPool pool, DeliveryManager deliveryManager, Tariff tariff, PricingRules rules,
+                       double[] distances, byte[] goodsDimensions, boolean[] fragileGoods, int[] deliveryServiceWorkloads, long[] costs,
+                       BigDecimal[] decimalCosts, byte[] statuses) {
+        if (distances.length <= THRESHOLD) {
+            // not worth a hand-off to the pool
+            deliveryManager.getCosts(tariff, rules, 0, distances.length, distances, goodsDimensions, fragileGoods,
+                    deliveryServiceWorkloads, costs, decimalCosts, statuses);
+            return;
+        }
+        pool.invoke(new BatchPricingTask(deliveryManager, tariff, rules, 0, distances.length, distances, goodsDimensions,
+                fragileGoods, deliveryServiceWorkloads, costs, decimalCosts, statuses));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            deliveryManager.getCosts(tariff, rules, from, to, distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                    costs, decimalCosts, statuses);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new BatchPricingTask(deliveryManager, tariff, rules, from, middle, distances, goodsDimensions, fragileGoods,
+                        deliveryServiceWorkloads, costs, decimalCosts, statuses),
+                new BatchPricingTask(deliveryManager, tariff, rules, middle, to, distances, goodsDimensions, fragileGoods,
+                        deliveryServiceWorkloads, costs, decimalCosts, statuses));
+    }
+
+}
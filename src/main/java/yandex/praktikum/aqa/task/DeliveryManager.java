@@ -1,59 +1,123 @@
 package yandex.praktikum.aqa.task;
 
+import yandex.praktikum.aqa.task.events.QuoteEventSink;
 import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.metrics.PricingMetrics;
+import yandex.praktikum.aqa.task.rules.PricingRules;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+import yandex.praktikum.aqa.task.tariff.TariffRegistry;
+import yandex.praktikum.aqa.task.workload.WorkloadSource;
 
 import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
 
 public class DeliveryManager {
 
-    enum GoodsDimension {
+    public enum GoodsDimension {
         BIG, LITTLE;
     }
 
     /**
-     * Get cost according to provided distance to destination
+     * Goods dimension code for batch pricing when goods dimension is absent,
+     * other codes are {@link GoodsDimension#ordinal()} values
+     */
+    public static final byte NO_GOODS_DIMENSION = -1;
+
+    /**
+     * Batch pricing statuses, rejected rows have the same reasons {@link InvalidDeliveryException} is thrown for
+     */
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_FRAGILE_GOODS_BEYOND_LIMIT = 1;
+    public static final byte STATUS_GOODS_DIMENSION_ABSENT = 2;
+
+    private static final GoodsDimension[] GOODS_DIMENSIONS = GoodsDimension.values();
+    private static final String GOODS_DIMENSION_ABSENT_MESSAGE
+            = "Goods dimension type is absent, please provide correct value";
+    private static final InvalidDeliveryException STACKLESS_GOODS_DIMENSION_ABSENT_REJECTION
+            = InvalidDeliveryException.stackless(GOODS_DIMENSION_ABSENT_MESSAGE, RejectionReason.GOODS_DIMENSION_ABSENT);
+
+    private final TariffRegistry tariffRegistry;
+    private volatile QuoteEventSink quoteEventSink;
+    private volatile boolean isStacklessRejections;
+    private volatile WorkloadSource workloadSource;
+    private volatile PricingMetrics pricingMetrics;
+    private volatile PricingRules pricingRules;
+
+    public DeliveryManager() {
+        this(new TariffRegistry(Tariff.DEFAULT));
+    }
+
+    /**
+     * @param tariffRegistry - source of the current tariff, may be shared with other managers
+     */
+    public DeliveryManager(TariffRegistry tariffRegistry) {
+        this.tariffRegistry = tariffRegistry;
+    }
+
+    /**
+     * Attach destination for every calculated quote
      *
-     * @param distance - distance to destination (km)
-     * @return cost (rub)
+     * @param quoteEventSink - non-blocking quote sink, null to stop publishing quotes
      */
-    private BigDecimal getCostByDistance(double distance) {
-        distance = distance < 0 ? 0 : distance;
-        return BigDecimal.valueOf(distance > 30 ? 300 : distance > 10 ? 200 : distance > 2 ? 100: 50);
+    public void setQuoteEventSink(QuoteEventSink quoteEventSink) {
+        this.quoteEventSink = quoteEventSink;
     }
 
     /**
-     * Get cost according to provided goods dimension
+     * Throw preallocated {@link InvalidDeliveryException} without stack trace for rejected deliveries,
+     * so that rejections cost about the same as quotes
      *
-     * @param goodsDimension - goods dimension (little/big)
-     * @return cost (rub)
+     * @param isStacklessRejections - flag for stackless rejections (true/false)
      */
-    private BigDecimal getCostByGoodsDimension(GoodsDimension goodsDimension) {
-        return BigDecimal.valueOf(goodsDimension == GoodsDimension.BIG ? 200 : 100);
+    public void setStacklessRejections(boolean isStacklessRejections) {
+        this.isStacklessRejections = isStacklessRejections;
     }
 
     /**
-     * Get cost according to provided goods fragility
+     * Attach source of the live delivery service workload for quotes without workload
      *
-     * @param isFragileGoods - flag for fragile goods (true/false)
-     * @return cost (rub)
+     * @param workloadSource - workload source, null to detach
+     */
+    public void setWorkloadSource(WorkloadSource workloadSource) {
+        this.workloadSource = workloadSource;
+    }
+
+    /**
+     * Attach metrics recorded for every single quote and rejection, batch pricing is not recorded
+     *
+     * @param pricingMetrics - pricing metrics, null to stop recording
      */
-    private BigDecimal getCostByGoodsFragility(boolean isFragileGoods) {
-        return BigDecimal.valueOf(isFragileGoods ? 300 : 0);
+    public void setPricingMetrics(PricingMetrics pricingMetrics) {
+        this.pricingMetrics = pricingMetrics;
     }
 
     /**
-     * Get factor according to provided delivery service workload
+     * Price quotes and batches with compiled pricing rules instead of the tariff, e.g.
+     * {@code setPricingRules(PricingRules.load(file))}. Quotes get the rules version as the tariff version,
+     * events are published with {@link QuoteEventSink#publishRuleBased}.
+     * Rule attributes are not published, so a {@link yandex.praktikum.aqa.task.journal.QuoteJournalReplay}
+     * skips rule-priced quotes. {@link #getTariff()} is not affected, while the rules are set
+     * {@link yandex.praktikum.aqa.task.quotes.OpenQuoteRegistry} can't be used, since it groups quotes
+     * by tariff tiers.
      *
-     * @param deliveryServiceWorkload - delivery service workload in percents (0-100)
-     * @return factor (number)
+     * @param pricingRules - pricing rules, null to price with the tariff again
+     */
+    public void setPricingRules(PricingRules pricingRules) {
+        this.pricingRules = pricingRules;
+    }
+
+    /**
+     * @return pricing rules quotes are calculated with, null if they are calculated with the tariff
+     */
+    public PricingRules getPricingRules() {
+        return pricingRules;
+    }
+
+    /**
+     * @return tariff quotes are currently calculated with
      */
-    private double getDeliveryServiceWorkloadFactor(int deliveryServiceWorkload) {
-        deliveryServiceWorkload = Math.max(deliveryServiceWorkload, 0);
-        deliveryServiceWorkload = Math.min(deliveryServiceWorkload, 100);
-        boolean isMediumLoad = deliveryServiceWorkload >= 40 && deliveryServiceWorkload < 60;
-        boolean isHighLoad = deliveryServiceWorkload >= 60 && deliveryServiceWorkload < 80;
-        boolean isCriticalLoad = deliveryServiceWorkload >= 80 && deliveryServiceWorkload <= 100;
-        return isCriticalLoad ? 1.6 : isHighLoad ? 1.4 : isMediumLoad ? 1.2 : 1;
+    public Tariff getTariff() {
+        return tariffRegistry.getTariff();
     }
 
     /**
@@ -67,22 +131,366 @@ public class DeliveryManager {
      */
     public BigDecimal getCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
                           int deliveryServiceWorkload) throws InvalidDeliveryException {
-        if (distance > 30 && isFragileGoods) {
-            throw new InvalidDeliveryException("Impossible to delivery fragile goods beyond 30km");
+        return BigDecimal.valueOf(getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload), 2);
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data in minor currency units.
+     * The cost is looked up in the current tariff without any allocation on success, the result is always equal
+     * to {@link #getCost(double, GoodsDimension, boolean, int)} expressed in kopecks.
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                 int deliveryServiceWorkload) throws InvalidDeliveryException {
+        return getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, null);
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data and attributes of the pricing rules
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param attributes                - attributes of {@link #setPricingRules(PricingRules) pricing rules},
+     *                                    null when absent, ignored by the tariff
+     * @return cost (rub)
+     */
+    public BigDecimal getCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                              int deliveryServiceWorkload, int[] attributes) throws InvalidDeliveryException {
+        return BigDecimal.valueOf(getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload,
+                attributes), 2);
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data and attributes of the pricing rules
+     * in minor currency units
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param attributes                - attributes of {@link #setPricingRules(PricingRules) pricing rules},
+     *                                    null when absent, ignored by the tariff
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                 int deliveryServiceWorkload, int[] attributes) throws InvalidDeliveryException {
+        PricingMetrics metrics = pricingMetrics;
+        long startTime = metrics == null ? PricingMetrics.NOT_RECORDED : metrics.startTime();
+        PricingRules rules = pricingRules;
+        if (rules != null) {
+            long resultCost = getRuleBasedCost(rules, distance, goodsDimension, isFragileGoods,
+                    deliveryServiceWorkload, attributes, metrics, startTime);
+            if (resultCost < 0) {
+                throw createRejection(rules, resultCost);
+            }
+            return resultCost;
+        }
+        Tariff tariff = tariffRegistry.getTariff();
+        RejectionReason rejectionReason = getRejectionReason(tariff, distance, goodsDimension, isFragileGoods);
+        if (rejectionReason != null) {
+            if (metrics != null) {
+                metrics.recordRejection(rejectionReason, startTime);
+            }
+            throw createRejection(tariff, rejectionReason);
+        }
+        long resultCost = getAcceptedCost(tariff, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        if (metrics != null) {
+            metrics.recordQuote(tariff, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, resultCost,
+                    startTime);
+        }
+        return resultCost;
+    }
+
+    /**
+     * Calculate and return delivery cost with the workload of the attached {@link WorkloadSource}
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @return cost (rub)
+     */
+    public BigDecimal getCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods)
+            throws InvalidDeliveryException {
+        return getCost(distance, goodsDimension, isFragileGoods, getDeliveryServiceWorkload());
+    }
+
+    /**
+     * Calculate and return delivery cost with the workload of the attached {@link WorkloadSource}
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double distance, GoodsDimension goodsDimension, boolean isFragileGoods)
+            throws InvalidDeliveryException {
+        return getCostInKopecks(distance, goodsDimension, isFragileGoods, getDeliveryServiceWorkload());
+    }
+
+    private int getDeliveryServiceWorkload() {
+        WorkloadSource source = workloadSource;
+        if (source == null) {
+            throw new IllegalStateException("Workload source is absent, please provide delivery service workload");
+        }
+        return source.getDeliveryServiceWorkload();
+    }
+
+    /**
+     * Calculate delivery cost according to provided data without throwing {@link InvalidDeliveryException}
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (kopecks) or rejection reason
+     */
+    public DeliveryQuote quote(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                               int deliveryServiceWorkload) {
+        return quote(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, null);
+    }
+
+    /**
+     * Calculate delivery cost according to provided data and attributes of the pricing rules
+     * without throwing {@link InvalidDeliveryException}
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param attributes                - attributes of {@link #setPricingRules(PricingRules) pricing rules},
+     *                                    null when absent, ignored by the tariff
+     * @return cost (kopecks) or rejection reason
+     */
+    public DeliveryQuote quote(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                               int deliveryServiceWorkload, int[] attributes) {
+        PricingMetrics metrics = pricingMetrics;
+        long startTime = metrics == null ? PricingMetrics.NOT_RECORDED : metrics.startTime();
+        PricingRules rules = pricingRules;
+        if (rules != null) {
+            long resultCost = getRuleBasedCost(rules, distance, goodsDimension, isFragileGoods,
+                    deliveryServiceWorkload, attributes, metrics, startTime);
+            return resultCost < 0 ? DeliveryQuote.rejected(rules.getRejectionReason(resultCost), rules.getVersion())
+                    : DeliveryQuote.accepted(resultCost, rules.getVersion());
+        }
+        Tariff tariff = tariffRegistry.getTariff();
+        RejectionReason rejectionReason = getRejectionReason(tariff, distance, goodsDimension, isFragileGoods);
+        if (rejectionReason != null) {
+            if (metrics != null) {
+                metrics.recordRejection(rejectionReason, startTime);
+            }
+            return DeliveryQuote.rejected(rejectionReason, tariff.getVersion());
+        }
+        long resultCost = getAcceptedCost(tariff, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        if (metrics != null) {
+            metrics.recordQuote(tariff, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, resultCost,
+                    startTime);
+        }
+        return DeliveryQuote.accepted(resultCost, tariff.getVersion());
+    }
+
+    private static RejectionReason getRejectionReason(Tariff tariff, double distance, GoodsDimension goodsDimension,
+                                                      boolean isFragileGoods) {
+        if (isFragileGoods && tariff.isBeyondFragileGoodsDistanceLimit(distance)) {
+            return RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT;
         }
         if (goodsDimension == null) {
-            throw new InvalidDeliveryException("Goods dimension type is absent, please provide correct value");
+            return RejectionReason.GOODS_DIMENSION_ABSENT;
+        }
+        return null;
+    }
+
+    private InvalidDeliveryException createRejection(Tariff tariff, RejectionReason rejectionReason) {
+        boolean isFragileGoodsRejection = rejectionReason == RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT;
+        if (isStacklessRejections) {
+            return isFragileGoodsRejection ? tariff.getStacklessFragileGoodsRejection()
+                    : STACKLESS_GOODS_DIMENSION_ABSENT_REJECTION;
+        }
+        return new InvalidDeliveryException(isFragileGoodsRejection ? tariff.getFragileGoodsRejectionMessage()
+                : GOODS_DIMENSION_ABSENT_MESSAGE, rejectionReason);
+    }
+
+    /**
+     * @return cost (kopecks) or negative value of the rejection, see {@link PricingRules#getRejectionReason(long)}
+     */
+    private long getRuleBasedCost(PricingRules rules, double distance, GoodsDimension goodsDimension,
+                                  boolean isFragileGoods, int deliveryServiceWorkload, int[] attributes,
+                                  PricingMetrics metrics, long startTime) {
+        long cost = rules.getCostBeforeMinCost(distance, goodsDimension == null ? NO_GOODS_DIMENSION
+                : goodsDimension.ordinal(), isFragileGoods, deliveryServiceWorkload, attributes);
+        if (cost < 0) {
+            if (metrics != null) {
+                metrics.recordRejection(rules.getRejectionReason(cost), startTime);
+            }
+            return cost;
+        }
+        long resultCost = Math.max(cost, rules.getMinCostInKopecks());
+        QuoteEventSink sink = quoteEventSink;
+        if (sink != null) {
+            sink.publishRuleBased(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, resultCost,
+                    rules.getVersion());
+        }
+        if (metrics != null) {
+            metrics.recordQuote(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload,
+                    resultCost != cost, startTime);
+        }
+        return resultCost;
+    }
+
+    private InvalidDeliveryException createRejection(PricingRules rules, long cost) {
+        return isStacklessRejections ? rules.getStacklessRejection(cost)
+                : new InvalidDeliveryException(rules.getRejectionMessage(cost), rules.getRejectionReason(cost));
+    }
+
+    private long getAcceptedCost(Tariff tariff, double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                 int deliveryServiceWorkload) {
+        long resultCost = tariff.getCost(distance, goodsDimension.ordinal(), isFragileGoods, deliveryServiceWorkload);
+        QuoteEventSink sink = quoteEventSink;
+        if (sink != null) {
+            sink.publish(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, resultCost,
+                    tariff.getVersion());
+        }
+        return resultCost;
+    }
+
+    /**
+     * Calculate delivery cost for every row of provided columns in minor currency units.
+     * Rows are split across the common fork/join pool, a rejected row gets zero cost and a non-OK status
+     * instead of {@link InvalidDeliveryException}. The whole batch is priced with the same tariff
+     * or {@link #setPricingRules(PricingRules) pricing rules}, rows have no attributes of the rules.
+     *
+     * @param distances                 - distances to destination (km)
+     * @param goodsDimensions           - goods dimension codes ({@link GoodsDimension#ordinal()} or {@link #NO_GOODS_DIMENSION})
+     * @param fragileGoods              - flags for fragile goods (true/false)
+     * @param deliveryServiceWorkloads  - delivery service workloads in percents (0-100)
+     * @param costs                     - costs (kopecks), filled by the method
+     * @param statuses                  - statuses ({@link #STATUS_OK} or rejection reason), filled by the method
+     */
+    public void getCostsInKopecks(double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                                  int[] deliveryServiceWorkloads, long[] costs, byte[] statuses) {
+        getCostsInKopecks(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads, costs, statuses,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #getCostsInKopecks(double[], byte[], boolean[], int[], long[], byte[])} on provided pool
+     */
+    public void getCostsInKopecks(double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                                  int[] deliveryServiceWorkloads, long[] costs, byte[] statuses, ForkJoinPool pool) {
+        checkBatchSize(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads, costs.length, statuses);
+        BatchPricingTask.invoke(pool, this, tariffRegistry.getTariff(), pricingRules, distances, goodsDimensions,
+                fragileGoods, deliveryServiceWorkloads,
+                costs, null, statuses);
+    }
+
+    /**
+     * Same as {@link #getCostsInKopecks(double[], byte[], boolean[], int[], long[], byte[])} with costs in rubles,
+     * rejected rows get null cost
+     */
+    public void getCosts(double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                         int[] deliveryServiceWorkloads, BigDecimal[] costs, byte[] statuses) {
+        getCosts(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads, costs, statuses,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #getCosts(double[], byte[], boolean[], int[], BigDecimal[], byte[])} on provided pool
+     */
+    public void getCosts(double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                         int[] deliveryServiceWorkloads, BigDecimal[] costs, byte[] statuses, ForkJoinPool pool) {
+        checkBatchSize(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads, costs.length, statuses);
+        BatchPricingTask.invoke(pool, this, tariffRegistry.getTariff(), pricingRules, distances, goodsDimensions,
+                fragileGoods, deliveryServiceWorkloads,
+                new long[distances.length], costs, statuses);
+    }
+
+    private static void checkBatchSize(double[] distances, byte[] goodsDimensions, boolean[] fragileGoods,
+                                       int[] deliveryServiceWorkloads, int costsLength, byte[] statuses) {
+        int size = distances.length;
+        if (goodsDimensions.length != size || fragileGoods.length != size || deliveryServiceWorkloads.length != size
+                || costsLength != size || statuses.length != size) {
+            throw new IllegalArgumentException("All batch columns must have the same length " + size);
+        }
+    }
+
+    /**
+     * Price rows [from, to) of the batch with the rules if they are given and with the tariff otherwise
+     */
+    void getCosts(Tariff tariff, PricingRules rules, int from, int to, double[] distances, byte[] goodsDimensions,
+                  boolean[] fragileGoods, int[] deliveryServiceWorkloads, long[] costs, BigDecimal[] decimalCosts,
+                  byte[] statuses) {
+        if (rules == null) {
+            getCosts(tariff, from, to, distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads, costs,
+                    statuses);
+        } else {
+            getRuleBasedCosts(rules, from, to, distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                    costs, statuses);
+        }
+        if (decimalCosts != null) {
+            for (int i = from; i < to; i++) {
+                decimalCosts[i] = statuses[i] == STATUS_OK ? BigDecimal.valueOf(costs[i], 2) : null;
+            }
+        }
+        QuoteEventSink sink = quoteEventSink;
+        if (sink != null) {
+            for (int i = from; i < to; i++) {
+                if (statuses[i] != STATUS_OK) {
+                    continue;
+                }
+                if (rules == null) {
+                    sink.publish(distances[i], GOODS_DIMENSIONS[goodsDimensions[i]], fragileGoods[i],
+                            deliveryServiceWorkloads[i], costs[i], tariff.getVersion());
+                } else {
+                    sink.publishRuleBased(distances[i], GOODS_DIMENSIONS[goodsDimensions[i]], fragileGoods[i],
+                            deliveryServiceWorkloads[i], costs[i], rules.getVersion());
+                }
+            }
+        }
+    }
+
+    /**
+     * Price rows [from, to) with the tariff, the loop has no calls besides the inlined tariff lookup
+     * and no branches besides ternaries, so that it stays friendly to the JIT
+     */
+    private static void getCosts(Tariff tariff, int from, int to, double[] distances, byte[] goodsDimensions,
+                                 boolean[] fragileGoods, int[] deliveryServiceWorkloads, long[] costs, byte[] statuses) {
+        for (int i = from; i < to; i++) {
+            double distance = distances[i];
+            int goodsDimension = goodsDimensions[i];
+            boolean isFragileGoods = fragileGoods[i];
+            byte status = isFragileGoods && tariff.isBeyondFragileGoodsDistanceLimit(distance)
+                    ? STATUS_FRAGILE_GOODS_BEYOND_LIMIT
+                    : goodsDimension < 0 || goodsDimension >= GOODS_DIMENSIONS.length ? STATUS_GOODS_DIMENSION_ABSENT
+                    : STATUS_OK;
+            costs[i] = status == STATUS_OK
+                    ? tariff.getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkloads[i])
+                    : 0;
+            statuses[i] = status;
+        }
+    }
+
+    /**
+     * Price rows [from, to) with the compiled rules and no attributes, the rules reject rows without goods dimension
+     */
+    private static void getRuleBasedCosts(PricingRules rules, int from, int to, double[] distances,
+                                          byte[] goodsDimensions, boolean[] fragileGoods,
+                                          int[] deliveryServiceWorkloads, long[] costs, byte[] statuses) {
+        long minCost = rules.getMinCostInKopecks();
+        for (int i = from; i < to; i++) {
+            int goodsDimension = goodsDimensions[i];
+            long cost = rules.getCostBeforeMinCost(distances[i],
+                    goodsDimension < 0 || goodsDimension >= GOODS_DIMENSIONS.length ? NO_GOODS_DIMENSION : goodsDimension,
+                    fragileGoods[i],
+                    deliveryServiceWorkloads[i], null);
+            costs[i] = cost < 0 ? 0 : Math.max(cost, minCost);
+            statuses[i] = cost < 0 ? rules.getRejectionReason(cost).getStatus() : STATUS_OK;
         }
-        BigDecimal minCost = BigDecimal.valueOf(400);
-        BigDecimal resultCost = new BigDecimal(0)
-                .add(getCostByDistance(distance))
-                .add(getCostByGoodsDimension(goodsDimension))
-                .add(getCostByGoodsFragility(isFragileGoods))
-                .multiply(BigDecimal.valueOf(getDeliveryServiceWorkloadFactor(deliveryServiceWorkload)));
-        resultCost = resultCost.max(minCost);
-        System.out.println(String.format("Delivery cost for %s goods (fragile = '%s') on %skm with service workload %d%% is %sRUB",
-                goodsDimension.toString().toLowerCase(), isFragileGoods, distance, deliveryServiceWorkload, resultCost));
-        return resultCost.setScale(2, BigDecimal.ROUND_FLOOR);
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
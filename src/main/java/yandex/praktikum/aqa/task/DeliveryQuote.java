@@ -0,0 +1,68 @@
+package yandex.praktikum.aqa.task;
+
+import java.math.BigDecimal;
+
+/**
+ * Delivery cost or the reason delivery can't be quoted, together with the tariff version used
+ */
+public final class DeliveryQuote {
+
+    private final long cost;
+    private final RejectionReason rejectionReason;
+    private final long tariffVersion;
+
+    private DeliveryQuote(long cost, RejectionReason rejectionReason, long tariffVersion) {
+        this.cost = cost;
+        this.rejectionReason = rejectionReason;
+        this.tariffVersion = tariffVersion;
+    }
+
+    static DeliveryQuote accepted(long cost, long tariffVersion) {
+        return new DeliveryQuote(cost, null, tariffVersion);
+    }
+
+    static DeliveryQuote rejected(RejectionReason rejectionReason, long tariffVersion) {
+        return new DeliveryQuote(0, rejectionReason, tariffVersion);
+    }
+
+    /**
+     * @return true if delivery is quoted, false if it is rejected
+     */
+    public boolean isAccepted() {
+        return rejectionReason == null;
+    }
+
+    /**
+     * @return reason delivery is rejected, null if it is quoted
+     */
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+
+    /**
+     * @return cost (kopecks), 0 if delivery is rejected
+     */
+    public long getCostInKopecks() {
+        return cost;
+    }
+
+    /**
+     * @return cost (rub), null if delivery is rejected
+     */
+    public BigDecimal getCost() {
+        return isAccepted() ? BigDecimal.valueOf(cost, 2) : null;
+    }
+
+    /**
+     * @return version of the tariff delivery is quoted with
+     */
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    @Override
+    public String toString() {
+        return (isAccepted() ? getCost() + "RUB" : rejectionReason.toString()) + " (tariff version " + tariffVersion + ")";
+    }
+
+}
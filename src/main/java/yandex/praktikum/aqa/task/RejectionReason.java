@@ -0,0 +1,40 @@
+package yandex.praktikum.aqa.task;
+
+/**
+ * Reason a delivery can't be quoted
+ */
+public enum RejectionReason {
+
+    FRAGILE_GOODS_BEYOND_LIMIT(DeliveryManager.STATUS_FRAGILE_GOODS_BEYOND_LIMIT),
+    GOODS_DIMENSION_ABSENT(DeliveryManager.STATUS_GOODS_DIMENSION_ABSENT);
+
+    private final byte status;
+
+    RejectionReason(byte status) {
+        this.status = status;
+    }
+
+    /**
+     * @return batch pricing status of the rejected row
+     */
+    public byte getStatus() {
+        return status;
+    }
+
+    /**
+     * @param status - batch pricing status
+     * @return rejection reason, null for {@link DeliveryManager#STATUS_OK}
+     */
+    public static RejectionReason fromStatus(byte status) {
+        for (RejectionReason reason : values()) {
+            if (reason.status == status) {
+                return reason;
+            }
+        }
+        if (status == DeliveryManager.STATUS_OK) {
+            return null;
+        }
+        throw new IllegalArgumentException("Unknown batch pricing status " + status);
+    }
+
+}
@@ -0,0 +1,477 @@
+package yandex.praktikum.aqa.task.bulk;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.RejectionReason;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Prices CSV files of orders of any size in constant memory.
+ * <p>
+ * Every input row is {@code distance,goodsDimension,isFragileGoods,deliveryServiceWorkload}, for example
+ * {@code 5.5,BIG,true,65}; an empty goods dimension means it is absent. The input file is memory-mapped window
+ * by window and parsed directly from bytes, rows are priced in columnar chunks through
+ * {@link DeliveryManager#getCostsInKopecks}. Every priced row is written to the output file with its cost
+ * in rubles appended ({@code 5.5,BIG,true,65,840.00}), every rejected row is written to the reject file as
+ * {@code lineNumber,reason,row} where reason is {@link RejectionReason} name or {@link #REASON_MALFORMED_ROW}.
+ */
+public class CsvOrderPricer {
+
+    /**
+     * Reason for rows that can't be parsed, other rows are rejected for {@link RejectionReason}
+     */
+    public static final String REASON_MALFORMED_ROW = "MALFORMED_ROW";
+
+    private static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+    private static final int CHUNK_SIZE = 8192;
+    private static final int OUTPUT_BUFFER_SIZE = 256 << 10;
+    private static final int FIELDS = 4;
+    // doubles represent integers up to 2^53 exactly, so mantissa / 10^n is rounded only once
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final DeliveryManager.GoodsDimension[] GOODS_DIMENSIONS = DeliveryManager.GoodsDimension.values();
+    private static final byte[][] GOODS_DIMENSION_NAMES = new byte[GOODS_DIMENSIONS.length][];
+
+    static {
+        for (int i = 0; i < GOODS_DIMENSIONS.length; i++) {
+            GOODS_DIMENSION_NAMES[i] = GOODS_DIMENSIONS[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final DeliveryManager deliveryManager;
+    private final int windowSize;
+
+    public CsvOrderPricer(DeliveryManager deliveryManager) {
+        this(deliveryManager, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param deliveryManager   - delivery manager rows are priced with
+     * @param windowSize        - size of the input file region mapped at once, limits the line length (bytes)
+     */
+    CsvOrderPricer(DeliveryManager deliveryManager, int windowSize) {
+        this.deliveryManager = deliveryManager;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Number of rows written to the output and reject files
+     */
+    public static class Summary {
+
+        private final long pricedRows;
+        private final long rejectedRows;
+
+        Summary(long pricedRows, long rejectedRows) {
+            this.pricedRows = pricedRows;
+            this.rejectedRows = rejectedRows;
+        }
+
+        public long getPricedRows() {
+            return pricedRows;
+        }
+
+        public long getRejectedRows() {
+            return rejectedRows;
+        }
+
+        @Override
+        public String toString() {
+            return "priced " + pricedRows + " rows, rejected " + rejectedRows + " rows";
+        }
+
+    }
+
+    /**
+     * Price every row of the input file
+     *
+     * @param input     - input CSV file
+     * @param output    - file for priced rows, replaced if exists
+     * @param rejects   - file for rejected rows, replaced if exists
+     * @param hasHeader - flag for the first input line being a header (true/false)
+     * @return number of priced and rejected rows
+     * @throws IOException when any of the files can't be read or written
+     */
+    public Summary price(Path input, Path output, Path rejects, boolean hasHeader) throws IOException {
+        try (FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+             Writer outputWriter = new Writer(output);
+             Writer rejectWriter = new Writer(rejects)) {
+            Run run = new Run(outputWriter, rejectWriter, hasHeader);
+            long size = inputChannel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                MappedByteBuffer window = inputChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = run.process(window, position + length == size);
+                if (consumed == 0) {
+                    throw new IOException("Line " + (run.lineNumber + 1) + " is longer than " + windowSize + " bytes");
+                }
+                position += consumed;
+            }
+            return new Summary(run.pricedRows, run.rejectedRows);
+        }
+    }
+
+    /**
+     * State of one pricing run: the current chunk of rows in columns and row counters
+     */
+    private class Run {
+
+        private final Writer outputWriter;
+        private final Writer rejectWriter;
+        private boolean skipLine;
+        private long lineNumber;
+        private long pricedRows;
+        private long rejectedRows;
+
+        private final double[] distances = new double[CHUNK_SIZE];
+        private final byte[] goodsDimensions = new byte[CHUNK_SIZE];
+        private final boolean[] fragileGoods = new boolean[CHUNK_SIZE];
+        private final int[] deliveryServiceWorkloads = new int[CHUNK_SIZE];
+        private final long[] costs = new long[CHUNK_SIZE];
+        private final byte[] statuses = new byte[CHUNK_SIZE];
+        private final boolean[] malformed = new boolean[CHUNK_SIZE];
+        private final long[] lineNumbers = new long[CHUNK_SIZE];
+        private final int[] rowStarts = new int[CHUNK_SIZE];
+        private final int[] rowEnds = new int[CHUNK_SIZE];
+        private final int[] fieldStarts = new int[FIELDS + 1];
+        private int rows;
+
+        Run(Writer outputWriter, Writer rejectWriter, boolean hasHeader) {
+            this.outputWriter = outputWriter;
+            this.rejectWriter = rejectWriter;
+            this.skipLine = hasHeader;
+        }
+
+        /**
+         * Parse and price every complete line of the window
+         *
+         * @return number of bytes consumed, the rest belongs to a line that continues beyond the window
+         */
+        int process(ByteBuffer window, boolean isLastWindow) throws IOException {
+            int limit = window.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && window.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd == limit && !isLastWindow) {
+                    break;
+                }
+                int rowEnd = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                lineNumber++;
+                if (skipLine) {
+                    skipLine = false;
+                } else if (rowEnd > lineStart) {
+                    parse(window, lineStart, rowEnd);
+                    if (rows == CHUNK_SIZE) {
+                        flush(window);
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            // rows refer to the window, so they must be written before it is replaced
+            flush(window);
+            return Math.min(lineStart, limit);
+        }
+
+        private void parse(ByteBuffer window, int start, int end) {
+            int row = rows++;
+            lineNumbers[row] = lineNumber;
+            rowStarts[row] = start;
+            rowEnds[row] = end;
+            int fields = 0;
+            fieldStarts[0] = start;
+            for (int i = start; i < end; i++) {
+                if (window.get(i) == ',') {
+                    if (++fields == FIELDS) {
+                        break;
+                    }
+                    fieldStarts[fields] = i + 1;
+                }
+            }
+            boolean isMalformed = fields != FIELDS - 1;
+            if (!isMalformed) {
+                fieldStarts[FIELDS] = end + 1;
+                double distance = parseDistance(window, fieldStarts[0], fieldStarts[1] - 1);
+                int goodsDimension = parseGoodsDimension(window, fieldStarts[1], fieldStarts[2] - 1);
+                int isFragileGoods = parseBoolean(window, fieldStarts[2], fieldStarts[3] - 1);
+                long deliveryServiceWorkload = parseInt(window, fieldStarts[3], fieldStarts[4] - 1);
+                isMalformed = Double.isNaN(distance) || goodsDimension == Integer.MIN_VALUE || isFragileGoods < 0
+                        || deliveryServiceWorkload == Long.MIN_VALUE;
+                distances[row] = distance;
+                goodsDimensions[row] = (byte) goodsDimension;
+                fragileGoods[row] = isFragileGoods == 1;
+                deliveryServiceWorkloads[row] = (int) deliveryServiceWorkload;
+            }
+            malformed[row] = isMalformed;
+            if (isMalformed) {
+                // rejected by the batch as well, the reason is taken from the malformed flag
+                goodsDimensions[row] = DeliveryManager.NO_GOODS_DIMENSION;
+                fragileGoods[row] = false;
+            }
+        }
+
+        private void flush(ByteBuffer window) throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            // batch columns must have equal length, the unused tail of the chunk is padded with rejected rows
+            for (int row = rows; row < CHUNK_SIZE; row++) {
+                goodsDimensions[row] = DeliveryManager.NO_GOODS_DIMENSION;
+                fragileGoods[row] = false;
+            }
+            deliveryManager.getCostsInKopecks(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                    costs, statuses);
+            for (int row = 0; row < rows; row++) {
+                if (!malformed[row] && statuses[row] == DeliveryManager.STATUS_OK) {
+                    outputWriter.write(window, rowStarts[row], rowEnds[row]);
+                    outputWriter.write((byte) ',');
+                    outputWriter.writeCost(costs[row]);
+                    outputWriter.write((byte) '\n');
+                    pricedRows++;
+                } else {
+                    rejectWriter.writeNumber(lineNumbers[row]);
+                    rejectWriter.write((byte) ',');
+                    rejectWriter.write(malformed[row] ? REASON_MALFORMED_ROW
+                            : RejectionReason.fromStatus(statuses[row]).name());
+                    rejectWriter.write((byte) ',');
+                    rejectWriter.write(window, rowStarts[row], rowEnds[row]);
+                    rejectWriter.write((byte) '\n');
+                    rejectedRows++;
+                }
+            }
+            rows = 0;
+        }
+
+    }
+
+    /**
+     * @return distance or NaN if the field is not a decimal number
+     */
+    static double parseDistance(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean isNegative = i < end && buffer.get(i) == '-';
+        if (isNegative || i < end && buffer.get(i) == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    return parseDistanceSlowly(buffer, start, end);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseDistanceSlowly(buffer, start, end);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            // zeros keep the mantissa small, so long fractions are only caught here
+            return parseDistanceSlowly(buffer, start, end);
+        }
+        double distance = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return isNegative ? -distance : distance;
+    }
+
+    private static double parseDistanceSlowly(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        try {
+            double distance = Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            return Double.isInfinite(distance) ? Double.NaN : distance;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return goods dimension code, {@link DeliveryManager#NO_GOODS_DIMENSION} for an empty field
+     * or {@link Integer#MIN_VALUE} for unknown goods dimension
+     */
+    static int parseGoodsDimension(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return DeliveryManager.NO_GOODS_DIMENSION;
+        }
+        for (int i = 0; i < GOODS_DIMENSION_NAMES.length; i++) {
+            if (equalsIgnoreCase(buffer, start, end, GOODS_DIMENSION_NAMES[i])) {
+                return i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return 1 for true or 1, 0 for false or 0, -1 otherwise
+     */
+    static int parseBoolean(ByteBuffer buffer, int start, int end) {
+        if (end - start == 1) {
+            byte b = buffer.get(start);
+            return b == '1' ? 1 : b == '0' ? 0 : -1;
+        }
+        return equalsIgnoreCase(buffer, start, end, TRUE) ? 1 : equalsIgnoreCase(buffer, start, end, FALSE) ? 0 : -1;
+    }
+
+    /**
+     * @return integer or {@link Long#MIN_VALUE} if the field is not an integer
+     */
+    static long parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean isNegative = i < end && buffer.get(i) == '-';
+        if (isNegative || i < end && buffer.get(i) == '+') {
+            i++;
+        }
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9' || value > Integer.MAX_VALUE) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        value = isNegative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static boolean equalsIgnoreCase(ByteBuffer buffer, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            // ASCII letters differ from their other case in bit 0x20 only
+            if ((buffer.get(start + i) | 0x20) != (expected[i] | 0x20)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Buffered writer of bytes and numbers to a file channel
+     */
+    private static class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        private final byte[] digits = new byte[20];
+
+        Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put(b);
+        }
+
+        void write(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                write((byte) text.charAt(i));
+            }
+        }
+
+        void write(ByteBuffer source, int start, int end) throws IOException {
+            if (end - start > buffer.remaining()) {
+                drain();
+            }
+            if (end - start > buffer.remaining()) {
+                ByteBuffer slice = source.duplicate();
+                slice.limit(end).position(start);
+                while (slice.hasRemaining()) {
+                    channel.write(slice);
+                }
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                buffer.put(source.get(i));
+            }
+        }
+
+        void writeNumber(long value) throws IOException {
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (length > 0) {
+                write(digits[--length]);
+            }
+        }
+
+        /**
+         * @param cost - cost (kopecks), written in rubles with two fraction digits
+         */
+        void writeCost(long cost) throws IOException {
+            writeNumber(cost / 100);
+            write((byte) '.');
+            write((byte) ('0' + cost % 100 / 10));
+            write((byte) ('0' + cost % 10));
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+
+    }
+
+    /**
+     * Price CSV file of orders: input output rejects [--header]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: CsvOrderPricer <input> <output> <rejects> [--header]");
+            System.exit(2);
+        }
+        Summary summary = new CsvOrderPricer(new DeliveryManager())
+                .price(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]),
+                        args.length > 3 && "--header".equals(args[3]));
+        System.out.println(summary);
+    }
+
+}
@@ -0,0 +1,167 @@
+package yandex.praktikum.aqa.task.events;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Quote sink that hands quotes over to a {@link QuoteListener} running on a background thread.
+ * Quotes are stored in a bounded lock-free ring buffer of preallocated events: publishing never blocks
+ * and never allocates, a quote is dropped when the buffer is full or when it is not sampled.
+ */
+public class AsyncQuoteEventSink implements QuoteEventSink, AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final QuoteListener listener;
+    private final int sampleRate;
+    private final int mask;
+    private final QuoteEvent[] events;
+    // slot i is free for the producer claiming position p when sequence == p, readable when sequence == p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread drainer;
+    private volatile boolean running = true;
+    private long head;
+
+    /**
+     * @param listener      - quote listener, called on the background thread only
+     * @param capacity      - ring buffer capacity, rounded up to a power of two
+     * @param sampleRate    - every quote is forwarded with probability 1/sampleRate (1 forwards all quotes)
+     */
+    public AsyncQuoteEventSink(QuoteListener listener, int capacity, int sampleRate) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Quote listener is absent");
+        }
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in range 1-" + (1 << 30) + ", got " + capacity);
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive, got " + sampleRate);
+        }
+        this.listener = listener;
+        this.sampleRate = sampleRate;
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = size - 1;
+        this.events = new QuoteEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            events[i] = new QuoteEvent();
+            sequences.set(i, i);
+        }
+        this.drainer = new Thread(this::drain, "quote-event-sink");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    public AsyncQuoteEventSink(QuoteListener listener) {
+        this(listener, 1 << 14, 1);
+    }
+
+    @Override
+    public void publish(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                        int deliveryServiceWorkload, long cost, long tariffVersion) {
+        offer(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost, tariffVersion, false);
+    }
+
+    @Override
+    public void publishRuleBased(double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                 boolean isFragileGoods, int deliveryServiceWorkload, long cost, long rulesVersion) {
+        offer(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost, rulesVersion, true);
+    }
+
+    private void offer(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                       int deliveryServiceWorkload, long cost, long tariffVersion, boolean isRuleBased) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index].set(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost,
+                            tariffVersion, isRuleBased);
+                    sequences.lazySet(index, position + 1);
+                    published.increment();
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            if (!drainAvailable()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drainAvailable();
+    }
+
+    private boolean drainAvailable() {
+        boolean drained = false;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return drained;
+            }
+            try {
+                listener.onQuote(events[index]);
+            } catch (RuntimeException e) {
+                // a faulty listener must not stop delivery of the following quotes
+            }
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained = true;
+        }
+    }
+
+    /**
+     * @return number of quotes accepted into the ring buffer
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * @return number of sampled quotes dropped because the ring buffer was full or the sink was closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stop the background thread after delivering quotes already accepted into the ring buffer.
+     * Quotes published concurrently with closing may be lost.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
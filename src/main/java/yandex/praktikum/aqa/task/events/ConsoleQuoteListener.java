@@ -0,0 +1,29 @@
+package yandex.praktikum.aqa.task.events;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+
+/**
+ * Writes every quote as a human readable line, by default to the console
+ */
+public class ConsoleQuoteListener implements QuoteListener {
+
+    private final PrintStream out;
+
+    public ConsoleQuoteListener() {
+        this(System.out);
+    }
+
+    public ConsoleQuoteListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onQuote(QuoteEvent event) {
+        out.println(String.format("Delivery cost for %s goods (fragile = '%s') on %skm with service workload %d%% is %sRUB (%s version %d)",
+                event.getGoodsDimension().toString().toLowerCase(), event.isFragileGoods(), event.getDistance(),
+                event.getDeliveryServiceWorkload(), BigDecimal.valueOf(event.getCost(), 2),
+                event.isRuleBased() ? "rules" : "tariff", event.getTariffVersion()));
+    }
+
+}
@@ -0,0 +1,80 @@
+package yandex.praktikum.aqa.task.events;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+/**
+ * Delivery cost quote produced by {@link DeliveryManager}.
+ * Instances are reused by {@link AsyncQuoteEventSink}, so a listener must copy the values it wants to keep.
+ */
+public class QuoteEvent {
+
+    private double distance;
+    private DeliveryManager.GoodsDimension goodsDimension;
+    private boolean isFragileGoods;
+    private int deliveryServiceWorkload;
+    private long cost;
+    private long tariffVersion;
+    private boolean isRuleBased;
+
+    void set(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+             int deliveryServiceWorkload, long cost, long tariffVersion, boolean isRuleBased) {
+        this.distance = distance;
+        this.goodsDimension = goodsDimension;
+        this.isFragileGoods = isFragileGoods;
+        this.deliveryServiceWorkload = deliveryServiceWorkload;
+        this.cost = cost;
+        this.tariffVersion = tariffVersion;
+        this.isRuleBased = isRuleBased;
+    }
+
+    /**
+     * @return distance to destination (km)
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return goods dimension (little/big)
+     */
+    public DeliveryManager.GoodsDimension getGoodsDimension() {
+        return goodsDimension;
+    }
+
+    /**
+     * @return flag for fragile goods (true/false)
+     */
+    public boolean isFragileGoods() {
+        return isFragileGoods;
+    }
+
+    /**
+     * @return delivery service workload in percents (0-100)
+     */
+    public int getDeliveryServiceWorkload() {
+        return deliveryServiceWorkload;
+    }
+
+    /**
+     * @return cost (kopecks)
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * @return version of the tariff the cost is calculated with, version of the pricing rules if
+     * {@link #isRuleBased()}
+     */
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    /**
+     * @return true if the cost is calculated with pricing rules instead of the tariff
+     */
+    public boolean isRuleBased() {
+        return isRuleBased;
+    }
+
+}
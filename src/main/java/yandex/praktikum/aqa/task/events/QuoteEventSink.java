@@ -0,0 +1,39 @@
+package yandex.praktikum.aqa.task.events;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+/**
+ * Destination for quotes calculated by {@link DeliveryManager}.
+ * Called on the pricing thread, so implementations must never block.
+ */
+public interface QuoteEventSink {
+
+    /**
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param cost                      - cost (kopecks)
+     * @param tariffVersion             - version of the tariff the cost is calculated with
+     */
+    void publish(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                 int deliveryServiceWorkload, long cost, long tariffVersion);
+
+    /**
+     * Quote calculated with {@link yandex.praktikum.aqa.task.rules.PricingRules} instead of the tariff.
+     * Rule attributes are not passed, so the quote can't be re-priced from the event.
+     * By default it is published as a tariff quote.
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param cost                      - cost (kopecks)
+     * @param rulesVersion              - version of the pricing rules the cost is calculated with
+     */
+    default void publishRuleBased(double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                  boolean isFragileGoods, int deliveryServiceWorkload, long cost, long rulesVersion) {
+        publish(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost, rulesVersion);
+    }
+
+}
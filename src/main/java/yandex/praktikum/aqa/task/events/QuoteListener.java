@@ -0,0 +1,13 @@
+package yandex.praktikum.aqa.task.events;
+
+/**
+ * Receives delivery cost quotes from {@link AsyncQuoteEventSink} on its background thread
+ */
+public interface QuoteListener {
+
+    /**
+     * @param event - quote, valid only until the method returns
+     */
+    void onQuote(QuoteEvent event);
+
+}
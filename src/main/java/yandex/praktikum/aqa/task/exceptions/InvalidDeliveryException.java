@@ -1,9 +1,42 @@
 package yandex.praktikum.aqa.task.exceptions;
 
+import yandex.praktikum.aqa.task.RejectionReason;
+
 public class InvalidDeliveryException extends Exception {
 
+    private final RejectionReason reason;
+
     public InvalidDeliveryException(String message) {
+        this(message, null);
+    }
+
+    public InvalidDeliveryException(String message, RejectionReason reason) {
         super(message);
+        this.reason = reason;
+    }
+
+    private InvalidDeliveryException(String message, RejectionReason reason, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.reason = reason;
+    }
+
+    /**
+     * Create exception without stack trace and suppressed exceptions, so that it is cheap to throw
+     * and safe to preallocate and share between threads
+     *
+     * @param message - exception message
+     * @param reason  - rejection reason
+     * @return exception
+     */
+    public static InvalidDeliveryException stackless(String message, RejectionReason reason) {
+        return new InvalidDeliveryException(message, reason, false);
+    }
+
+    /**
+     * @return reason delivery is rejected, null if unknown
+     */
+    public RejectionReason getReason() {
+        return reason;
     }
 
-}
\ No newline at end of file
+}
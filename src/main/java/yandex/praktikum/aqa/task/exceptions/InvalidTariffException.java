@@ -0,0 +1,13 @@
+package yandex.praktikum.aqa.task.exceptions;
+
+public class InvalidTariffException extends Exception {
+
+    public InvalidTariffException(String message) {
+        super(message);
+    }
+
+    public InvalidTariffException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,44 @@
+package yandex.praktikum.aqa.task.geo;
+
+/**
+ * Depot deliveries start from
+ */
+public final class Depot {
+
+    private final String id;
+    private final double latitude;
+    private final double longitude;
+
+    /**
+     * @param id        - depot identifier
+     * @param latitude  - latitude (degrees, -90-90)
+     * @param longitude - longitude (degrees, -180-180)
+     */
+    public Depot(String id, double latitude, double longitude) {
+        if (id == null) {
+            throw new IllegalArgumentException("Depot id is absent");
+        }
+        GreatCircle.checkCoordinates(latitude, longitude);
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + latitude + ", " + longitude + ")";
+    }
+
+}
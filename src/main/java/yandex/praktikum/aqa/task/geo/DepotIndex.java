@@ -0,0 +1,129 @@
+package yandex.praktikum.aqa.task.geo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Immutable spatial index of depots for nearest depot lookups in logarithmic time.
+ * Depots are stored as points on the unit sphere in a balanced KD-tree laid out in arrays:
+ * the nearest point by straight-line distance is also the nearest one by great-circle distance.
+ */
+public final class DepotIndex {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Depot[] depots;
+    // coordinates of depot i are points[i * 3], points[i * 3 + 1], points[i * 3 + 2]
+    private final double[] points;
+
+    /**
+     * @param depots - depots to index, at least one
+     */
+    public DepotIndex(Collection<Depot> depots) {
+        if (depots == null || depots.isEmpty()) {
+            throw new IllegalArgumentException("Depots are absent");
+        }
+        int size = depots.size();
+        double[][] vectors = new double[size][];
+        Integer[] order = new Integer[size];
+        Depot[] source = depots.toArray(new Depot[0]);
+        for (int i = 0; i < size; i++) {
+            vectors[i] = toUnitVector(source[i].getLatitude(), source[i].getLongitude());
+            order[i] = i;
+        }
+        build(order, vectors, 0, size, 0);
+        this.depots = new Depot[size];
+        this.points = new double[size * DIMENSIONS];
+        for (int i = 0; i < size; i++) {
+            this.depots[i] = source[order[i]];
+            System.arraycopy(vectors[order[i]], 0, points, i * DIMENSIONS, DIMENSIONS);
+        }
+    }
+
+    // node of the subtree [from, to) is its middle element, left subtree is before it and right one is after it
+    private static void build(Integer[] order, double[][] vectors, int from, int to, int axis) {
+        if (to - from < 2) {
+            return;
+        }
+        Arrays.sort(order, from, to, Comparator.comparingDouble(i -> vectors[i][axis]));
+        int middle = (from + to) >>> 1;
+        int nextAxis = axis + 1 == DIMENSIONS ? 0 : axis + 1;
+        build(order, vectors, from, middle, nextAxis);
+        build(order, vectors, middle + 1, to, nextAxis);
+    }
+
+    static double[] toUnitVector(double latitude, double longitude) {
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+        return new double[]{cosLatitude * Math.cos(longitudeRadians), cosLatitude * Math.sin(longitudeRadians),
+                Math.sin(latitudeRadians)};
+    }
+
+    /**
+     * @return number of indexed depots
+     */
+    public int size() {
+        return depots.length;
+    }
+
+    /**
+     * @param latitude  - latitude of the origin (degrees, -90-90)
+     * @param longitude - longitude of the origin (degrees, -180-180)
+     * @return depot nearest to the origin
+     */
+    public Depot findNearestDepot(double latitude, double longitude) {
+        GreatCircle.checkCoordinates(latitude, longitude);
+        double[] origin = toUnitVector(latitude, longitude);
+        Search search = new Search(origin[0], origin[1], origin[2]);
+        search.visit(0, depots.length, 0);
+        return depots[search.nearest];
+    }
+
+    private final class Search {
+
+        private final double x;
+        private final double y;
+        private final double z;
+        private int nearest = -1;
+        private double nearestSquaredDistance = Double.POSITIVE_INFINITY;
+
+        Search(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        void visit(int from, int to, int axis) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                int offset = middle * DIMENSIONS;
+                double dx = points[offset] - x;
+                double dy = points[offset + 1] - y;
+                double dz = points[offset + 2] - z;
+                double squaredDistance = dx * dx + dy * dy + dz * dz;
+                if (squaredDistance < nearestSquaredDistance) {
+                    nearestSquaredDistance = squaredDistance;
+                    nearest = middle;
+                }
+                double axisDistance = axis == 0 ? -dx : axis == 1 ? -dy : -dz;
+                int nextAxis = axis + 1 == DIMENSIONS ? 0 : axis + 1;
+                // descend to the origin side first, the other side only if the splitting plane is closer than the best
+                if (axisDistance < 0) {
+                    visit(from, middle, nextAxis);
+                    from = middle + 1;
+                } else {
+                    visit(middle + 1, to, nextAxis);
+                    to = middle;
+                }
+                if (axisDistance * axisDistance >= nearestSquaredDistance) {
+                    return;
+                }
+                axis = nextAxis;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package yandex.praktikum.aqa.task.geo;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.DeliveryQuote;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.math.BigDecimal;
+
+/**
+ * Quotes deliveries by destination coordinates: the distance is the great-circle distance
+ * from the nearest depot. Nearest depots of recent destinations are cached by their exact coordinates,
+ * so a cached depot is always the one {@link DepotIndex} finds for the destination.
+ * The cache is a lock-free direct-mapped table: a lookup reads one slot, a miss replaces it.
+ */
+public class GeoDeliveryManager {
+
+    private final DeliveryManager deliveryManager;
+    private final DepotIndex depotIndex;
+    // entries are immutable, so a slot read without synchronization is either a consistent entry or null
+    private final CacheEntry[] nearestDepots;
+    private final int cacheMask;
+
+    /**
+     * @param deliveryManager   - manager quotes are calculated with
+     * @param depotIndex        - index of depots
+     * @param cacheCapacity     - number of destinations to keep nearest depots for, rounded up to a power of two,
+     *                            0 to disable the cache
+     */
+    public GeoDeliveryManager(DeliveryManager deliveryManager, DepotIndex depotIndex, int cacheCapacity) {
+        if (deliveryManager == null || depotIndex == null) {
+            throw new IllegalArgumentException("Delivery manager or depot index is absent");
+        }
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must not be negative, got " + cacheCapacity);
+        }
+        this.deliveryManager = deliveryManager;
+        this.depotIndex = depotIndex;
+        int slots = cacheCapacity == 0 ? 0 : Integer.highestOneBit(Math.min(cacheCapacity, 1 << 30));
+        this.nearestDepots = cacheCapacity == 0 ? null : new CacheEntry[slots < cacheCapacity ? slots << 1 : slots];
+        this.cacheMask = cacheCapacity == 0 ? 0 : nearestDepots.length - 1;
+    }
+
+    public GeoDeliveryManager(DeliveryManager deliveryManager, DepotIndex depotIndex) {
+        this(deliveryManager, depotIndex, 1 << 12);
+    }
+
+    /**
+     * @param latitude  - latitude of destination (degrees, -90-90)
+     * @param longitude - longitude of destination (degrees, -180-180)
+     * @return depot nearest to destination
+     */
+    public Depot findNearestDepot(double latitude, double longitude) {
+        if (nearestDepots == null) {
+            return depotIndex.findNearestDepot(latitude, longitude);
+        }
+        GreatCircle.checkCoordinates(latitude, longitude);
+        long latitudeBits = Double.doubleToLongBits(latitude);
+        long longitudeBits = Double.doubleToLongBits(longitude);
+        int slot = (int) ((latitudeBits * 31 + longitudeBits) * 0x9E3779B97F4A7C15L >>> 32) & cacheMask;
+        CacheEntry entry = nearestDepots[slot];
+        if (entry != null && entry.latitudeBits == latitudeBits && entry.longitudeBits == longitudeBits) {
+            return entry.depot;
+        }
+        Depot depot = depotIndex.findNearestDepot(latitude, longitude);
+        nearestDepots[slot] = new CacheEntry(latitudeBits, longitudeBits, depot);
+        return depot;
+    }
+
+    /**
+     * @param latitude  - latitude of destination (degrees, -90-90)
+     * @param longitude - longitude of destination (degrees, -180-180)
+     * @return distance from the nearest depot to destination (km)
+     */
+    public double getDistance(double latitude, double longitude) {
+        Depot depot = findNearestDepot(latitude, longitude);
+        return GreatCircle.getDistance(depot.getLatitude(), depot.getLongitude(), latitude, longitude);
+    }
+
+    /**
+     * Calculate and return delivery cost from the nearest depot to destination
+     *
+     * @param latitude                  - latitude of destination (degrees, -90-90)
+     * @param longitude                 - longitude of destination (degrees, -180-180)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (rub)
+     */
+    public BigDecimal getCost(double latitude, double longitude, GoodsDimension goodsDimension, boolean isFragileGoods,
+                              int deliveryServiceWorkload) throws InvalidDeliveryException {
+        return deliveryManager.getCost(getDistance(latitude, longitude), goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+    }
+
+    /**
+     * Same as {@link #getCost(double, double, GoodsDimension, boolean, int)} in kopecks
+     *
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double latitude, double longitude, GoodsDimension goodsDimension,
+                                 boolean isFragileGoods, int deliveryServiceWorkload) throws InvalidDeliveryException {
+        return deliveryManager.getCostInKopecks(getDistance(latitude, longitude), goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+    }
+
+    /**
+     * Same as {@link #getCost(double, double, GoodsDimension, boolean, int)} without throwing
+     * {@link InvalidDeliveryException}
+     *
+     * @return cost (kopecks) or rejection reason
+     */
+    public DeliveryQuote quote(double latitude, double longitude, GoodsDimension goodsDimension, boolean isFragileGoods,
+                               int deliveryServiceWorkload) {
+        return deliveryManager.quote(getDistance(latitude, longitude), goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+    }
+
+    private static final class CacheEntry {
+
+        private final long latitudeBits;
+        private final long longitudeBits;
+        private final Depot depot;
+
+        CacheEntry(long latitudeBits, long longitudeBits, Depot depot) {
+            this.latitudeBits = latitudeBits;
+            this.longitudeBits = longitudeBits;
+            this.depot = depot;
+        }
+
+    }
+
+}
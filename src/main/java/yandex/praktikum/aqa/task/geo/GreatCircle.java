@@ -0,0 +1,42 @@
+package yandex.praktikum.aqa.task.geo;
+
+/**
+ * Distances on the Earth surface
+ */
+public final class GreatCircle {
+
+    /**
+     * Mean Earth radius (km)
+     */
+    public static final double EARTH_RADIUS = 6371.0088;
+
+    private GreatCircle() {
+    }
+
+    /**
+     * Haversine distance between two points
+     *
+     * @param fromLatitude  - latitude of the first point (degrees)
+     * @param fromLongitude - longitude of the first point (degrees)
+     * @param toLatitude    - latitude of the second point (degrees)
+     * @param toLongitude   - longitude of the second point (degrees)
+     * @return distance (km)
+     */
+    public static double getDistance(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeSine = Math.sin(Math.toRadians(toLatitude - fromLatitude) / 2);
+        double longitudeSine = Math.sin(Math.toRadians(toLongitude - fromLongitude) / 2);
+        double haversine = latitudeSine * latitudeSine + Math.cos(Math.toRadians(fromLatitude))
+                * Math.cos(Math.toRadians(toLatitude)) * longitudeSine * longitudeSine;
+        return 2 * EARTH_RADIUS * Math.asin(Math.sqrt(Math.min(1, haversine)));
+    }
+
+    static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude must be in range -90-90, got " + latitude);
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude must be in range -180-180, got " + longitude);
+        }
+    }
+
+}
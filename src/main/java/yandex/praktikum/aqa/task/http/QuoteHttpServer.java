@@ -0,0 +1,257 @@
+package yandex.praktikum.aqa.task.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryQuote;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.bulk.CsvOrderPricer;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+import yandex.praktikum.aqa.task.rules.PricingRules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quoting service on the JDK built-in HTTP server. Every order is one CSV row in the same format as
+ * {@link CsvOrderPricer} input: {@code distance,dimension,fragile,workload}, followed by the attributes
+ * of the {@link DeliveryManager#setPricingRules(PricingRules) pricing rules} if they declare any,
+ * e.g. {@code 5.5,BIG,true,65,23,MOSCOW}.
+ * <ul>
+ * <li>{@code GET /quote?5.5,BIG,true,65} answers {@code 840.00} or the rejection reason with status 422,
+ * malformed row gets status 400</li>
+ * <li>{@code POST /quotes} with one row per line answers one line per row: cost, rejection reason
+ * or {@link CsvOrderPricer#REASON_MALFORMED_ROW}</li>
+ * </ul>
+ * Responses have fixed length, so connections are kept alive. Requests are handled on virtual threads
+ * when the runtime has them (Java 21+) and on a cached thread pool otherwise.
+ * <p>
+ * Without {@link #enableTcpNoDelay()} (or {@code -Dsun.net.httpserver.nodelay=true}) a response written
+ * in two packets waits for the client's delayed ACK, about 40ms per request.
+ */
+public class QuoteHttpServer implements AutoCloseable {
+
+    private static final int FIELDS = 4;
+    private static final int MAX_BATCH_BODY_SIZE = 16 << 20;
+    private static final DeliveryManager.GoodsDimension[] GOODS_DIMENSIONS = DeliveryManager.GoodsDimension.values();
+    private static final String TARIFF_VERSION_HEADER = "X-Tariff-Version";
+
+    private final DeliveryManager deliveryManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Start serving quotes
+     *
+     * @param deliveryManager   - manager quotes are calculated with
+     * @param address           - address to listen on, port 0 picks a free port
+     * @throws IOException when server can't be started
+     */
+    public QuoteHttpServer(DeliveryManager deliveryManager, InetSocketAddress address) throws IOException {
+        if (deliveryManager == null) {
+            throw new IllegalArgumentException("Delivery manager is absent");
+        }
+        this.deliveryManager = deliveryManager;
+        this.server = HttpServer.create(address, 1024);
+        this.executor = createExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext("/quote", this::handleQuote);
+        this.server.createContext("/quotes", this::handleQuotes);
+        this.server.start();
+    }
+
+    /**
+     * Turn off Nagle's algorithm for all built-in HTTP servers of the process. The built-in server reads
+     * the setting once, so it takes effect only when called before the first server of the process is created.
+     * The setting is left as is if it is already set.
+     */
+    public static void enableTcpNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * @return executor with a new virtual thread per task if the runtime supports it, cached thread pool otherwise
+     */
+    static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "quote-http-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Use GET\n");
+                return;
+            }
+            String row = exchange.getRequestURI().getRawQuery();
+            DeliveryQuote deliveryQuote = row == null ? null : quote(row);
+            if (deliveryQuote == null) {
+                respond(exchange, 400, CsvOrderPricer.REASON_MALFORMED_ROW + "\n");
+            } else {
+                exchange.getResponseHeaders().set(TARIFF_VERSION_HEADER, Long.toString(deliveryQuote.getTariffVersion()));
+                respond(exchange, deliveryQuote.isAccepted() ? 200 : 422, format(deliveryQuote) + "\n");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleQuotes(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Use POST\n");
+                return;
+            }
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "Batch is larger than " + MAX_BATCH_BODY_SIZE + " bytes\n");
+                return;
+            }
+            StringBuilder response = new StringBuilder(body.length() / 2);
+            int start = 0;
+            while (start < body.length()) {
+                int end = body.indexOf('\n', start);
+                if (end < 0) {
+                    end = body.length();
+                }
+                int rowEnd = end > start && body.charAt(end - 1) == '\r' ? end - 1 : end;
+                DeliveryQuote deliveryQuote = quote(body.substring(start, rowEnd));
+                response.append(deliveryQuote == null ? CsvOrderPricer.REASON_MALFORMED_ROW : format(deliveryQuote))
+                        .append('\n');
+                start = end + 1;
+            }
+            respond(exchange, 200, response.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String readBody(InputStream body) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = body.read(buffer)) >= 0) {
+            result.write(buffer, 0, read);
+            if (result.size() > MAX_BATCH_BODY_SIZE) {
+                return null;
+            }
+        }
+        return new String(result.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static String format(DeliveryQuote deliveryQuote) {
+        return deliveryQuote.isAccepted() ? BigDecimal.valueOf(deliveryQuote.getCostInKopecks(), 2).toPlainString()
+                : deliveryQuote.getRejectionReason().name();
+    }
+
+    /**
+     * @param row - order row {@code distance,dimension,fragile,workload[,attribute...]}
+     * @return quote, null if row is malformed
+     */
+    DeliveryQuote quote(String row) {
+        String[] fields = row.split(",", -1);
+        PricingRules rules = deliveryManager.getPricingRules();
+        int attributeCount = rules == null ? 0 : rules.getAttributeNames().size();
+        if (fields.length != FIELDS && fields.length != FIELDS + attributeCount) {
+            return null;
+        }
+        try {
+            int[] attributes = null;
+            if (fields.length > FIELDS) {
+                attributes = new int[attributeCount];
+                for (int i = 0; i < attributeCount; i++) {
+                    attributes[i] = rules.parseAttribute(i, fields[FIELDS + i]);
+                }
+            }
+            double distance = Double.parseDouble(fields[0]);
+            DeliveryManager.GoodsDimension goodsDimension = null;
+            if (!fields[1].isEmpty()) {
+                goodsDimension = DeliveryManager.GoodsDimension.valueOf(fields[1].toUpperCase(Locale.ROOT));
+            }
+            Boolean isFragileGoods = parseBoolean(fields[2]);
+            if (!Double.isFinite(distance) || isFragileGoods == null) {
+                return null;
+            }
+            return deliveryManager.quote(distance, goodsDimension, isFragileGoods, Integer.parseInt(fields[3]),
+                    attributes);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value) || "1".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value) || "0".equals(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * Stop accepting connections and wait up to a second for requests in progress
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serve quotes with the default tariff or pricing rules file
+     *
+     * @param args - port to listen on, 8080 by default, and optional {@link PricingRules} file
+     */
+    public static void main(String[] args) throws IOException, InvalidTariffException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        DeliveryManager deliveryManager = new DeliveryManager();
+        if (args.length > 1) {
+            deliveryManager.setPricingRules(PricingRules.load(Paths.get(args[1])));
+        }
+        enableTcpNoDelay();
+        QuoteHttpServer server = new QuoteHttpServer(deliveryManager, new InetSocketAddress(port));
+        System.out.println("Serving quotes on port " + server.getPort());
+    }
+
+}
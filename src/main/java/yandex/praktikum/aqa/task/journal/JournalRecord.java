@@ -0,0 +1,162 @@
+package yandex.praktikum.aqa.task.journal;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Journaled quote. Record layout (little-endian, {@link #SIZE} bytes):
+ * timestamp (ms, long), distance (km, double), cost (kopecks, long), tariff version (long),
+ * delivery service workload (%, int), goods dimension code (byte), flags (byte), {@link #MARKER} (short).
+ * Flags are {@link #FRAGILE} and {@link #RULE_BASED}, a rule-priced record keeps the pricing rules version
+ * instead of the tariff version and doesn't keep the rule attributes.
+ * Instances are reused by {@link QuoteJournalReader}, so a consumer must copy the values it wants to keep.
+ */
+public class JournalRecord {
+
+    static final int SIZE = 40;
+    // written last, a record without it is not complete
+    static final short MARKER = 0x5155;
+    static final byte FRAGILE = 1;
+    static final byte RULE_BASED = 2;
+
+    private static final DeliveryManager.GoodsDimension[] GOODS_DIMENSIONS = DeliveryManager.GoodsDimension.values();
+
+    private long sequence;
+    private long timestamp;
+    private double distance;
+    private long cost;
+    private long tariffVersion;
+    private int deliveryServiceWorkload;
+    private byte goodsDimension;
+    private boolean isFragileGoods;
+    private boolean isRuleBased;
+
+    static void write(ByteBuffer buffer, int offset, long timestamp, double distance,
+                      DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                      int deliveryServiceWorkload, long cost, long tariffVersion, boolean isRuleBased) {
+        buffer.putLong(offset, timestamp);
+        buffer.putDouble(offset + 8, distance);
+        buffer.putLong(offset + 16, cost);
+        buffer.putLong(offset + 24, tariffVersion);
+        buffer.putInt(offset + 32, deliveryServiceWorkload);
+        buffer.put(offset + 36, goodsDimension == null ? DeliveryManager.NO_GOODS_DIMENSION
+                : (byte) goodsDimension.ordinal());
+        buffer.put(offset + 37, (byte) ((isFragileGoods ? FRAGILE : 0) | (isRuleBased ? RULE_BASED : 0)));
+        buffer.putShort(offset + 38, MARKER);
+    }
+
+    void set(long sequence, long timestamp, double distance, long cost, long tariffVersion,
+             int deliveryServiceWorkload, byte goodsDimension, boolean isFragileGoods, boolean isRuleBased) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.distance = distance;
+        this.cost = cost;
+        this.tariffVersion = tariffVersion;
+        this.deliveryServiceWorkload = deliveryServiceWorkload;
+        this.goodsDimension = goodsDimension;
+        this.isFragileGoods = isFragileGoods;
+        this.isRuleBased = isRuleBased;
+    }
+
+    /**
+     * @return true if the marker of the record at the offset is written
+     */
+    static boolean isComplete(ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset + 38) == MARKER;
+    }
+
+    /**
+     * @return false if there is no complete record at the offset
+     */
+    boolean read(ByteBuffer buffer, int offset, long sequence) {
+        if (!isComplete(buffer, offset)) {
+            return false;
+        }
+        byte flags = buffer.get(offset + 37);
+        set(sequence, buffer.getLong(offset), buffer.getDouble(offset + 8), buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24), buffer.getInt(offset + 32), buffer.get(offset + 36),
+                (flags & FRAGILE) != 0, (flags & RULE_BASED) != 0);
+        return true;
+    }
+
+    /**
+     * @return number of the record in the journal, starting from 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return time the quote was journaled (ms since epoch)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return distance to destination (km)
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return goods dimension code ({@link DeliveryManager.GoodsDimension#ordinal()}
+     * or {@link DeliveryManager#NO_GOODS_DIMENSION})
+     */
+    public byte getGoodsDimensionCode() {
+        return goodsDimension;
+    }
+
+    /**
+     * @return goods dimension (little/big), null if it is absent
+     */
+    public DeliveryManager.GoodsDimension getGoodsDimension() {
+        return goodsDimension >= 0 && goodsDimension < GOODS_DIMENSIONS.length ? GOODS_DIMENSIONS[goodsDimension] : null;
+    }
+
+    /**
+     * @return flag for fragile goods (true/false)
+     */
+    public boolean isFragileGoods() {
+        return isFragileGoods;
+    }
+
+    /**
+     * @return delivery service workload in percents (0-100)
+     */
+    public int getDeliveryServiceWorkload() {
+        return deliveryServiceWorkload;
+    }
+
+    /**
+     * @return cost (kopecks)
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * @return version of the tariff the cost is calculated with, version of the pricing rules if
+     * {@link #isRuleBased()}
+     */
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    /**
+     * @return true if the cost is calculated with pricing rules instead of the tariff
+     */
+    public boolean isRuleBased() {
+        return isRuleBased;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s goods (fragile = '%s') on %skm with service workload %d%% cost %d kopecks "
+                        + "(%s version %d)", sequence, getGoodsDimension(), isFragileGoods, distance,
+                deliveryServiceWorkload, cost, isRuleBased ? "rules" : "tariff", tariffVersion);
+    }
+
+}
@@ -0,0 +1,323 @@
+package yandex.praktikum.aqa.task.journal;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.events.QuoteEventSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only journal of quotes, attach it with {@link DeliveryManager#setQuoteEventSink}.
+ * Quotes are written as fixed-width {@link JournalRecord}s into memory-mapped segment files of fixed capacity.
+ * Appending never blocks and never does I/O: a record slot is claimed with a CAS and written with a few memory
+ * writes. A background thread flushes segments to disk once per commit interval for all quotes appended during it
+ * (group commit), so a crash loses at most the last interval. The same thread starts the next segment when
+ * the current one is full and keeps {@link #SEGMENTS_AHEAD} segments mapped ahead of it. A quote is dropped
+ * when the mapped segments are full or can't be created, see {@link #getDroppedRecords()} and {@link #getFailure()}.
+ * <p>
+ * Segment file {@code quotes-<sequence of its first record>.journal} starts with a header:
+ * {@link #MAGIC} (int), format version (int), sequence of the first record (long).
+ */
+public class QuoteJournal implements QuoteEventSink, AutoCloseable {
+
+    static final int MAGIC = 0x514a4e4c;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final String SEGMENT_PREFIX = "quotes-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final int SEGMENTS_AHEAD = 2;
+
+    // set in the claimed sequence when the journal is closed
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final long commitIntervalNanos;
+    private final Thread committer;
+    private final AtomicLong claimedSequence;
+    private final LongAdder droppedRecords = new LongAdder();
+    // oldest segment with records not committed yet, the following segments are linked from it
+    private volatile Segment segment;
+    private Segment lastSegment;
+    // sequence after the last record of the last mapped segment
+    private volatile long mappedSequence;
+    private volatile long committedSequence;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+        private volatile Segment next;
+
+        private Segment(long firstSequence, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+
+    }
+
+    /**
+     * Open journal for appending, quotes are appended to a new segment after the existing ones,
+     * the last existing segments are replaced when they have no records
+     *
+     * @param directory         - directory of segment files, created if absent
+     * @param segmentCapacity   - number of records per segment
+     * @param commitInterval    - interval between flushes to disk (ms)
+     * @throws IOException when journal can't be opened
+     */
+    public QuoteJournal(Path directory, int segmentCapacity, long commitInterval) throws IOException {
+        if (segmentCapacity < 1 || segmentCapacity > (Integer.MAX_VALUE - HEADER_SIZE) / JournalRecord.SIZE) {
+            throw new IllegalArgumentException("Segment capacity must be in range 1-"
+                    + (Integer.MAX_VALUE - HEADER_SIZE) / JournalRecord.SIZE + ", got " + segmentCapacity);
+        }
+        if (commitInterval < 1) {
+            throw new IllegalArgumentException("Commit interval must be positive, got " + commitInterval);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentCapacity = segmentCapacity;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitInterval);
+        List<Path> segments = QuoteJournalReader.listSegments(directory);
+        long nextSequence = 0;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            nextSequence = QuoteJournalReader.getNextSequence(segments.get(i));
+            if (!segments.get(i).equals(getSegmentFile(nextSequence))) {
+                break;
+            }
+            // segment without records is replaced, the new one is started with the same sequence
+            Files.delete(segments.get(i));
+        }
+        this.claimedSequence = new AtomicLong(nextSequence);
+        this.committedSequence = nextSequence;
+        this.segment = new Segment(nextSequence, createSegment(nextSequence));
+        this.lastSegment = segment;
+        this.mappedSequence = nextSequence + segmentCapacity;
+        for (int i = 0; i < SEGMENTS_AHEAD; i++) {
+            mapNextSegment();
+        }
+        this.committer = new Thread(this::commit, "quote-journal-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    public QuoteJournal(Path directory) throws IOException {
+        this(directory, 1 << 20, 10);
+    }
+
+    private Path getSegmentFile(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private MappedByteBuffer createSegment(long firstSequence) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(getSegmentFile(firstSequence), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) segmentCapacity * JournalRecord.SIZE);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putLong(8, firstSequence);
+        return buffer;
+    }
+
+    /**
+     * Map the segment after the last one, appending reaches it once the mapped sequence is published
+     */
+    private void mapNextSegment() throws IOException {
+        Segment next = new Segment(mappedSequence, createSegment(mappedSequence));
+        lastSegment.next = next;
+        lastSegment = next;
+        mappedSequence = next.firstSequence + segmentCapacity;
+    }
+
+    @Override
+    public void publish(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                        int deliveryServiceWorkload, long cost, long tariffVersion) {
+        append(System.currentTimeMillis(), distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost,
+                tariffVersion, false);
+    }
+
+    @Override
+    public void publishRuleBased(double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                 boolean isFragileGoods, int deliveryServiceWorkload, long cost, long rulesVersion) {
+        append(System.currentTimeMillis(), distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost,
+                rulesVersion, true);
+    }
+
+    /**
+     * Append a quote calculated with the tariff, see {@link #append(long, double, DeliveryManager.GoodsDimension,
+     * boolean, int, long, long, boolean)}
+     */
+    public long append(long timestamp, double distance, DeliveryManager.GoodsDimension goodsDimension,
+                       boolean isFragileGoods, int deliveryServiceWorkload, long cost, long tariffVersion) {
+        return append(timestamp, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost,
+                tariffVersion, false);
+    }
+
+    /**
+     * @param timestamp                 - time of the quote (ms since epoch)
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param cost                      - cost (kopecks)
+     * @param tariffVersion             - version of the tariff or the pricing rules the cost is calculated with
+     * @param isRuleBased               - flag for cost calculated with pricing rules (true/false)
+     * @return sequence of the record, -1 if the journal is closed or the record is dropped
+     */
+    public long append(long timestamp, double distance, DeliveryManager.GoodsDimension goodsDimension,
+                       boolean isFragileGoods, int deliveryServiceWorkload, long cost, long tariffVersion,
+                       boolean isRuleBased) {
+        long sequence;
+        do {
+            sequence = claimedSequence.get();
+            if (sequence < 0) {
+                return -1;
+            }
+            if (sequence >= mappedSequence) {
+                droppedRecords.increment();
+                return -1;
+            }
+        } while (!claimedSequence.compareAndSet(sequence, sequence + 1));
+        // segments before the claimed record can't be committed yet, so it is in the current segment or a later one
+        Segment target = segment;
+        while (sequence >= target.firstSequence + segmentCapacity) {
+            target = target.next;
+        }
+        JournalRecord.write(target.buffer, HEADER_SIZE + (int) (sequence - target.firstSequence) * JournalRecord.SIZE,
+                timestamp, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost, tariffVersion,
+                isRuleBased);
+        if (sequence == target.firstSequence && target != segment) {
+            // previous segment is full, let the committer start mapping the next one
+            LockSupport.unpark(committer);
+        }
+        return sequence;
+    }
+
+    /**
+     * Flush appended records to disk now, start the next segments if the current one is full.
+     * Appending is not blocked while the records are written.
+     */
+    public synchronized void flush() {
+        Segment current = segment;
+        long committed = committedSequence;
+        long flushed = committed;
+        try {
+            // records are complete in the order of sequences except those being written right now
+            while (true) {
+                int position = (int) (committed - current.firstSequence);
+                if (position == segmentCapacity) {
+                    current.buffer.force();
+                    flushed = committed;
+                    if (current.next == null) {
+                        break;
+                    }
+                    current = current.next;
+                    segment = current;
+                } else if (JournalRecord.isComplete(current.buffer, HEADER_SIZE + position * JournalRecord.SIZE)) {
+                    committed++;
+                } else {
+                    break;
+                }
+            }
+            if (committed != flushed) {
+                current.buffer.force();
+            }
+            committedSequence = committed;
+            while (running && (mappedSequence - segment.firstSequence) / segmentCapacity <= SEGMENTS_AHEAD) {
+                mapNextSegment();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+        }
+    }
+
+    /**
+     * @return number of records in the journal, including records being written right now
+     */
+    public long getAppendedRecords() {
+        return claimedSequence.get() & ~CLOSED;
+    }
+
+    /**
+     * @return number of records flushed to disk
+     */
+    public long getCommittedRecords() {
+        return committedSequence;
+    }
+
+    /**
+     * @return number of quotes dropped because the mapped segments were full
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    /**
+     * @return last error of flushing or creating segments, null if there was none
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    private void commit() {
+        while (running) {
+            LockSupport.parkNanos(this, commitIntervalNanos);
+            flush();
+        }
+    }
+
+    /**
+     * Stop appending, flush appended records and remove the segments mapped ahead without records
+     */
+    @Override
+    public void close() {
+        long claimed = claimedSequence.getAndUpdate(sequence -> sequence | CLOSED);
+        if (claimed < 0) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(committer);
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // appends that claimed a record before closing are finishing their memory writes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        flush();
+        while (committedSequence < claimed && System.nanoTime() < deadline) {
+            Thread.yield();
+            flush();
+        }
+        synchronized (this) {
+            for (Segment unused = segment.next; unused != null; unused = unused.next) {
+                if (unused.firstSequence >= claimed) {
+                    try {
+                        Files.deleteIfExists(getSegmentFile(unused.firstSequence));
+                    } catch (IOException e) {
+                        // left without records, replaced when the journal is opened again
+                        failure = e;
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package yandex.praktikum.aqa.task.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads records of {@link QuoteJournal} segments in the order they were appended
+ */
+public final class QuoteJournalReader {
+
+    private QuoteJournalReader() {
+    }
+
+    /**
+     * @param directory - journal directory
+     * @return segment files ordered by the sequence of their first record
+     * @throws IOException when directory can't be listed
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                QuoteJournal.SEGMENT_PREFIX + "*" + QuoteJournal.SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        // names are zero-padded, so lexicographic order is the sequence order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Call the consumer for every complete record of the journal
+     *
+     * @param directory - journal directory
+     * @param consumer  - record consumer, the record instance is reused
+     * @return number of read records
+     * @throws IOException when a segment can't be read or is not a journal segment
+     */
+    public static long read(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        JournalRecord record = new JournalRecord();
+        long records = 0;
+        for (Path segment : listSegments(directory)) {
+            MappedByteBuffer buffer = map(segment);
+            long sequence = buffer.getLong(8);
+            for (int offset = QuoteJournal.HEADER_SIZE; offset + JournalRecord.SIZE <= buffer.limit();
+                 offset += JournalRecord.SIZE) {
+                if (!record.read(buffer, offset, sequence)) {
+                    break;
+                }
+                consumer.accept(record);
+                sequence++;
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @param segment - segment file
+     * @return sequence the record after the last complete record of the segment would have
+     * @throws IOException when segment can't be read or is not a journal segment
+     */
+    static long getNextSequence(Path segment) throws IOException {
+        MappedByteBuffer buffer = map(segment);
+        long sequence = buffer.getLong(8);
+        for (int offset = QuoteJournal.HEADER_SIZE; offset + JournalRecord.SIZE <= buffer.limit();
+             offset += JournalRecord.SIZE) {
+            if (!JournalRecord.isComplete(buffer, offset)) {
+                break;
+            }
+            sequence++;
+        }
+        return sequence;
+    }
+
+    private static MappedByteBuffer map(Path segment) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + segment + " is larger than " + Integer.MAX_VALUE + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < QuoteJournal.HEADER_SIZE || buffer.getInt(0) != QuoteJournal.MAGIC) {
+            throw new IOException("File " + segment + " is not a quote journal segment");
+        }
+        if (buffer.getInt(4) != QuoteJournal.FORMAT_VERSION) {
+            throw new IOException("Segment " + segment + " has unsupported format version " + buffer.getInt(4));
+        }
+        return buffer;
+    }
+
+}
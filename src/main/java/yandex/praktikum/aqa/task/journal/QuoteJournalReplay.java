@@ -0,0 +1,180 @@
+package yandex.praktikum.aqa.task.journal;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.RejectionReason;
+
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+import yandex.praktikum.aqa.task.tariff.TariffRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Re-prices journaled quotes with a {@link DeliveryManager} to find quotes whose price would differ now,
+ * e.g. after a tariff or code change. Records are priced in columns through the batch pricing API.
+ * Quotes priced with pricing rules are skipped: their rule attributes are not journaled, so they can't be
+ * re-priced, and their versions are rules versions rather than tariff versions.
+ */
+public class QuoteJournalReplay {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    public interface DriftListener {
+
+        /**
+         * @param record        - journaled quote, the instance is reused
+         * @param replayedCost  - cost calculated now (kopecks), 0 if delivery is rejected now
+         * @param reason        - reason delivery is rejected now, null if it is quoted
+         */
+        void onDrift(JournalRecord record, long replayedCost, RejectionReason reason);
+
+    }
+
+    /**
+     * Number of replayed, drifted and skipped records
+     */
+    public static class Summary {
+
+        private final long replayedRecords;
+        private final long driftedRecords;
+        private final long skippedRecords;
+
+        Summary(long replayedRecords, long driftedRecords, long skippedRecords) {
+            this.replayedRecords = replayedRecords;
+            this.driftedRecords = driftedRecords;
+            this.skippedRecords = skippedRecords;
+        }
+
+        public long getReplayedRecords() {
+            return replayedRecords;
+        }
+
+        public long getDriftedRecords() {
+            return driftedRecords;
+        }
+
+        /**
+         * @return number of rule-priced records that can't be replayed
+         */
+        public long getSkippedRecords() {
+            return skippedRecords;
+        }
+
+        @Override
+        public String toString() {
+            return "replayed " + replayedRecords + " quotes, drifted " + driftedRecords + " quotes, skipped "
+                    + skippedRecords + " rule-priced quotes";
+        }
+
+    }
+
+    private final DeliveryManager deliveryManager;
+
+    /**
+     * @param deliveryManager - delivery manager quotes are re-priced with
+     */
+    public QuoteJournalReplay(DeliveryManager deliveryManager) {
+        this.deliveryManager = deliveryManager;
+    }
+
+    /**
+     * Re-price every quote of the journal
+     *
+     * @param directory     - journal directory
+     * @param driftListener - listener of quotes priced differently now
+     * @return number of replayed, drifted and skipped records
+     * @throws IOException when journal can't be read
+     */
+    public Summary replay(Path directory, DriftListener driftListener) throws IOException {
+        Chunk chunk = new Chunk(driftListener);
+        long records = QuoteJournalReader.read(directory, chunk::add);
+        chunk.replay();
+        return new Summary(records - chunk.skippedRecords, chunk.driftedRecords, chunk.skippedRecords);
+    }
+
+    private class Chunk {
+
+        private final DriftListener driftListener;
+        private final JournalRecord driftedRecord = new JournalRecord();
+        private final long[] sequences = new long[CHUNK_SIZE];
+        private final long[] timestamps = new long[CHUNK_SIZE];
+        private final long[] tariffVersions = new long[CHUNK_SIZE];
+        private final double[] distances = new double[CHUNK_SIZE];
+        private final byte[] goodsDimensions = new byte[CHUNK_SIZE];
+        private final boolean[] fragileGoods = new boolean[CHUNK_SIZE];
+        private final int[] deliveryServiceWorkloads = new int[CHUNK_SIZE];
+        private final long[] costs = new long[CHUNK_SIZE];
+        private final long[] journaledCosts = new long[CHUNK_SIZE];
+        private final byte[] statuses = new byte[CHUNK_SIZE];
+        private int size;
+        private long driftedRecords;
+        private long skippedRecords;
+
+        Chunk(DriftListener driftListener) {
+            this.driftListener = driftListener;
+        }
+
+        void add(JournalRecord record) {
+            if (record.isRuleBased()) {
+                skippedRecords++;
+                return;
+            }
+            sequences[size] = record.getSequence();
+            timestamps[size] = record.getTimestamp();
+            tariffVersions[size] = record.getTariffVersion();
+            distances[size] = record.getDistance();
+            goodsDimensions[size] = record.getGoodsDimensionCode();
+            fragileGoods[size] = record.isFragileGoods();
+            deliveryServiceWorkloads[size] = record.getDeliveryServiceWorkload();
+            journaledCosts[size] = record.getCost();
+            size++;
+            if (size == CHUNK_SIZE) {
+                replay();
+            }
+        }
+
+        void replay() {
+            if (size == 0) {
+                return;
+            }
+            if (size < CHUNK_SIZE) {
+                // tail rows are rejected without pricing
+                for (int i = size; i < CHUNK_SIZE; i++) {
+                    goodsDimensions[i] = DeliveryManager.NO_GOODS_DIMENSION;
+                }
+            }
+            deliveryManager.getCostsInKopecks(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                    costs, statuses);
+            for (int i = 0; i < size; i++) {
+                if (statuses[i] != DeliveryManager.STATUS_OK || costs[i] != journaledCosts[i]) {
+                    driftedRecords++;
+                    if (driftListener != null) {
+                        driftedRecord.set(sequences[i], timestamps[i], distances[i], journaledCosts[i],
+                                tariffVersions[i], deliveryServiceWorkloads[i], goodsDimensions[i], fragileGoods[i], false);
+                        driftListener.onDrift(driftedRecord, costs[i], RejectionReason.fromStatus(statuses[i]));
+                    }
+                }
+            }
+            size = 0;
+        }
+
+    }
+
+    /**
+     * Replay journal with the default or provided tariff and print drifted quotes: journal [tariff]
+     */
+    public static void main(String[] args) throws IOException, InvalidTariffException {
+        if (args.length < 1) {
+            System.err.println("Usage: QuoteJournalReplay <journal directory> [tariff file]");
+            System.exit(2);
+        }
+        Tariff tariff = args.length > 1 ? Tariff.load(Paths.get(args[1])) : Tariff.DEFAULT;
+        Summary summary = new QuoteJournalReplay(new DeliveryManager(new TariffRegistry(tariff)))
+                .replay(Paths.get(args[0]), (record, replayedCost, reason) -> System.out.println(record
+                        + " is now " + (reason == null ? replayedCost + " kopecks" : reason.name())));
+        System.out.println(summary);
+    }
+
+}
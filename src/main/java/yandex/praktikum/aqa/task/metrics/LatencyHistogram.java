@@ -0,0 +1,111 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies with logarithmic buckets: every power of two is split into 4 buckets,
+ * so a recorded value is reported with at most 25% error. Recording is a single striped counter increment.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param latency - latency (ns), negative latency is recorded as zero
+     */
+    public void record(long latency) {
+        counts[getBucket(latency)].increment();
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param bucket - bucket index
+     * @return greatest value recorded into the bucket
+     */
+    static long getBucketMaxValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long upperBound = (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound - 1;
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucketCount : counts) {
+            count += bucketCount.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile - percentile (0-100)
+     * @return latency not exceeded by the percentile of recorded latencies (ns), 0 if nothing is recorded
+     */
+    public long getPercentile(double percentile) {
+        return getPercentile(getCounts(), percentile);
+    }
+
+    static long getPercentile(long[] counts, double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in range 0-100, got " + percentile);
+        }
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return getBucketMaxValue(bucket);
+            }
+        }
+        return getBucketMaxValue(counts.length - 1);
+    }
+
+    /**
+     * @return bucket counts, indexes are the same as in {@link #getBucket(long)}
+     */
+    long[] getCounts() {
+        long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            result[i] = counts[i].sum();
+        }
+        return result;
+    }
+
+    void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+    }
+
+}
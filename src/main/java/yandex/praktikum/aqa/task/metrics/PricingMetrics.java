@@ -0,0 +1,286 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pricing counters and latency histogram of a {@link yandex.praktikum.aqa.task.DeliveryManager}.
+ * A quote increments one striped counter of its tariff cell (distance tier, goods dimension, fragility
+ * and workload tier), per tier counts are summed up from the cells when read. Clock reads cost more
+ * than the quote itself, so latency is measured for a random sample of calls only;
+ * disabled metrics skip recording entirely.
+ */
+public class PricingMetrics implements PricingMetricsMXBean {
+
+    /**
+     * Start time returned while metrics are disabled, calls started with it are not recorded
+     */
+    public static final long NOT_RECORDED = Long.MIN_VALUE;
+    private static final long NOT_TIMED = Long.MIN_VALUE + 1;
+
+    private static final GoodsDimension[] GOODS_DIMENSIONS = GoodsDimension.values();
+    private static final RejectionReason[] REJECTION_REASONS = RejectionReason.values();
+
+    private static final int CELLS = Tariff.DISTANCE_TIERS * GOODS_DIMENSIONS.length * 2 * Tariff.WORKLOAD_TIERS;
+
+    private final int latencySampleRate;
+    private final LongAdder[] quotesByCell = createCounters(CELLS);
+    private final LongAdder[] rejectionsByReason = createCounters(REJECTION_REASONS.length);
+    private final LongAdder minCostQuotes = new LongAdder();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private volatile boolean isEnabled = true;
+
+    /**
+     * @param latencySampleRate - latency is measured for a call with probability 1/latencySampleRate
+     *                            (1 measures every call)
+     */
+    public PricingMetrics(int latencySampleRate) {
+        if (latencySampleRate < 1) {
+            throw new IllegalArgumentException("Latency sample rate must be positive, got " + latencySampleRate);
+        }
+        this.latencySampleRate = latencySampleRate;
+    }
+
+    public PricingMetrics() {
+        this(32);
+    }
+
+    private static LongAdder[] createCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * @return start time of a call (ns), {@link #NOT_RECORDED} when metrics are disabled
+     * or another value when latency of the call is not sampled
+     */
+    public long startTime() {
+        if (!isEnabled) {
+            return NOT_RECORDED;
+        }
+        if (latencySampleRate > 1 && ThreadLocalRandom.current().nextInt(latencySampleRate) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    private void recordLatency(long startTime) {
+        if (startTime != NOT_TIMED) {
+            latencyHistogram.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private static int getCell(int distanceTier, int goodsDimension, boolean isFragileGoods, int workloadTier) {
+        return (((distanceTier * GOODS_DIMENSIONS.length + goodsDimension) << 1) + (isFragileGoods ? 1 : 0))
+                * Tariff.WORKLOAD_TIERS + workloadTier;
+    }
+
+    /**
+     * @param tariff                    - tariff the quote is calculated with
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param cost                      - cost (kopecks)
+     * @param startTime                 - start time returned by {@link #startTime()}
+     */
+    public void recordQuote(Tariff tariff, double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                            int deliveryServiceWorkload, long cost, long startTime) {
+        if (startTime == NOT_RECORDED) {
+            return;
+        }
+        recordQuote(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload,
+                tariff.isRaisedToMinCost(distance, goodsDimension.ordinal(), isFragileGoods, deliveryServiceWorkload),
+                startTime);
+    }
+
+    /**
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param isRaisedToMinCost         - flag for cost raised to the minimal cost (true/false)
+     * @param startTime                 - start time returned by {@link #startTime()}
+     */
+    public void recordQuote(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                            int deliveryServiceWorkload, boolean isRaisedToMinCost, long startTime) {
+        if (startTime == NOT_RECORDED) {
+            return;
+        }
+        recordLatency(startTime);
+        quotesByCell[getCell(Tariff.getDistanceTier(distance), goodsDimension.ordinal(), isFragileGoods,
+                Tariff.getWorkloadTier(deliveryServiceWorkload))].increment();
+        if (isRaisedToMinCost) {
+            minCostQuotes.increment();
+        }
+    }
+
+    /**
+     * @param reason    - rejection reason
+     * @param startTime - start time returned by {@link #startTime()}
+     */
+    public void recordRejection(RejectionReason reason, long startTime) {
+        if (startTime == NOT_RECORDED) {
+            return;
+        }
+        recordLatency(startTime);
+        rejectionsByReason[reason.ordinal()].increment();
+    }
+
+    /**
+     * @return copy of all counters
+     */
+    public PricingMetricsSnapshot getSnapshot() {
+        long[] quotesByDistanceTier = new long[Tariff.DISTANCE_TIERS];
+        long[] quotesByGoodsDimension = new long[GOODS_DIMENSIONS.length];
+        long fragileGoodsQuotes = 0;
+        long[] quotesByWorkloadTier = new long[Tariff.WORKLOAD_TIERS];
+        for (int distanceTier = 0; distanceTier < Tariff.DISTANCE_TIERS; distanceTier++) {
+            for (int goodsDimension = 0; goodsDimension < GOODS_DIMENSIONS.length; goodsDimension++) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    for (int workloadTier = 0; workloadTier < Tariff.WORKLOAD_TIERS; workloadTier++) {
+                        long quotes = quotesByCell[getCell(distanceTier, goodsDimension, isFragileGoods,
+                                workloadTier)].sum();
+                        quotesByDistanceTier[distanceTier] += quotes;
+                        quotesByGoodsDimension[goodsDimension] += quotes;
+                        fragileGoodsQuotes += isFragileGoods ? quotes : 0;
+                        quotesByWorkloadTier[workloadTier] += quotes;
+                    }
+                }
+            }
+        }
+        return new PricingMetricsSnapshot(quotesByDistanceTier, quotesByGoodsDimension, fragileGoodsQuotes,
+                quotesByWorkloadTier, sum(rejectionsByReason), minCostQuotes.sum(), latencyHistogram.getCounts());
+    }
+
+    private static long[] sum(LongAdder[] counters) {
+        long[] result = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            result[i] = counters[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : quotesByCell) {
+            counter.reset();
+        }
+        for (LongAdder counter : rejectionsByReason) {
+            counter.reset();
+        }
+        minCostQuotes.reset();
+        latencyHistogram.reset();
+    }
+
+    /**
+     * Register metrics in the platform MBean server
+     *
+     * @param name - value of the name key of the MBean object name
+     * @return object name the metrics are registered with
+     * @throws JMException when metrics can't be registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("yandex.praktikum.aqa.task:type=PricingMetrics,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getQuotes() {
+        return getSnapshot().getQuotes();
+    }
+
+    @Override
+    public long getRejections() {
+        return getSnapshot().getRejections();
+    }
+
+    @Override
+    public long[] getQuotesByDistanceTier() {
+        PricingMetricsSnapshot snapshot = getSnapshot();
+        long[] result = new long[Tariff.DISTANCE_TIERS];
+        for (int distanceTier = 0; distanceTier < result.length; distanceTier++) {
+            result[distanceTier] = snapshot.getQuotesByDistanceTier(distanceTier);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getQuotesByGoodsDimension() {
+        PricingMetricsSnapshot snapshot = getSnapshot();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+            result.put(goodsDimension.name(), snapshot.getQuotesByGoodsDimension(goodsDimension));
+        }
+        return result;
+    }
+
+    @Override
+    public long getFragileGoodsQuotes() {
+        return getSnapshot().getFragileGoodsQuotes();
+    }
+
+    @Override
+    public long[] getQuotesByWorkloadTier() {
+        PricingMetricsSnapshot snapshot = getSnapshot();
+        long[] result = new long[Tariff.WORKLOAD_TIERS];
+        for (int workloadTier = 0; workloadTier < result.length; workloadTier++) {
+            result[workloadTier] = snapshot.getQuotesByWorkloadTier(workloadTier);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getRejectionsByReason() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (RejectionReason reason : REJECTION_REASONS) {
+            result.put(reason.name(), rejectionsByReason[reason.ordinal()].sum());
+        }
+        return result;
+    }
+
+    @Override
+    public double getMinCostQuoteShare() {
+        return getSnapshot().getMinCostQuoteShare();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return getSnapshot().getLatencyPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return getSnapshot().getLatencyPercentile(99);
+    }
+
+    @Override
+    public long getLatencyP999() {
+        return getSnapshot().getLatencyPercentile(99.9);
+    }
+
+}
@@ -0,0 +1,38 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PricingMetrics}, every attribute is read from a fresh snapshot
+ */
+public interface PricingMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean isEnabled);
+
+    long getQuotes();
+
+    long getRejections();
+
+    long[] getQuotesByDistanceTier();
+
+    Map<String, Long> getQuotesByGoodsDimension();
+
+    long getFragileGoodsQuotes();
+
+    long[] getQuotesByWorkloadTier();
+
+    Map<String, Long> getRejectionsByReason();
+
+    double getMinCostQuoteShare();
+
+    long getLatencyP50();
+
+    long getLatencyP99();
+
+    long getLatencyP999();
+
+    void reset();
+
+}
@@ -0,0 +1,116 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.RejectionReason;
+
+/**
+ * Copy of {@link PricingMetrics} counters at some moment. Counters updated during the copy may be
+ * partially included, every counter itself is exact.
+ */
+public final class PricingMetricsSnapshot {
+
+    private final long[] quotesByDistanceTier;
+    private final long[] quotesByGoodsDimension;
+    private final long fragileGoodsQuotes;
+    private final long[] quotesByWorkloadTier;
+    private final long[] rejectionsByReason;
+    private final long minCostQuotes;
+    private final long[] latencyCounts;
+
+    PricingMetricsSnapshot(long[] quotesByDistanceTier, long[] quotesByGoodsDimension, long fragileGoodsQuotes,
+                           long[] quotesByWorkloadTier, long[] rejectionsByReason, long minCostQuotes,
+                           long[] latencyCounts) {
+        this.quotesByDistanceTier = quotesByDistanceTier;
+        this.quotesByGoodsDimension = quotesByGoodsDimension;
+        this.fragileGoodsQuotes = fragileGoodsQuotes;
+        this.quotesByWorkloadTier = quotesByWorkloadTier;
+        this.rejectionsByReason = rejectionsByReason;
+        this.minCostQuotes = minCostQuotes;
+        this.latencyCounts = latencyCounts;
+    }
+
+    /**
+     * @return number of calculated quotes
+     */
+    public long getQuotes() {
+        long quotes = 0;
+        for (long count : quotesByDistanceTier) {
+            quotes += count;
+        }
+        return quotes;
+    }
+
+    /**
+     * @param distanceTier - distance tier (0-3), see {@link yandex.praktikum.aqa.task.tariff.Tariff#getDistanceTier}
+     * @return number of quotes in the tier
+     */
+    public long getQuotesByDistanceTier(int distanceTier) {
+        return quotesByDistanceTier[distanceTier];
+    }
+
+    public long getQuotesByGoodsDimension(GoodsDimension goodsDimension) {
+        return quotesByGoodsDimension[goodsDimension.ordinal()];
+    }
+
+    public long getFragileGoodsQuotes() {
+        return fragileGoodsQuotes;
+    }
+
+    /**
+     * @param workloadTier - workload tier (0-3), see {@link yandex.praktikum.aqa.task.tariff.Tariff#getWorkloadTier}
+     * @return number of quotes in the tier
+     */
+    public long getQuotesByWorkloadTier(int workloadTier) {
+        return quotesByWorkloadTier[workloadTier];
+    }
+
+    /**
+     * @return number of rejected deliveries
+     */
+    public long getRejections() {
+        long rejections = 0;
+        for (long count : rejectionsByReason) {
+            rejections += count;
+        }
+        return rejections;
+    }
+
+    public long getRejections(RejectionReason reason) {
+        return rejectionsByReason[reason.ordinal()];
+    }
+
+    /**
+     * @return number of quotes equal to the tariff minimal cost
+     */
+    public long getMinCostQuotes() {
+        return minCostQuotes;
+    }
+
+    /**
+     * @return share of quotes equal to the tariff minimal cost (0-1), 0 if there are no quotes
+     */
+    public double getMinCostQuoteShare() {
+        long quotes = getQuotes();
+        return quotes == 0 ? 0 : (double) minCostQuotes / quotes;
+    }
+
+    /**
+     * @return number of calls with sampled latency
+     */
+    public long getLatencyCount() {
+        long count = 0;
+        for (long bucketCount : latencyCounts) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile - percentile (0-100)
+     * @return latency not exceeded by the percentile of sampled calls (ns), 0 if no calls are sampled
+     */
+    public long getLatencyPercentile(double percentile) {
+        return LatencyHistogram.getPercentile(latencyCounts, percentile);
+    }
+
+}
@@ -0,0 +1,62 @@
+package yandex.praktikum.aqa.task.quotes;
+
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+
+import java.math.BigDecimal;
+
+/**
+ * Quote shown to a customer until it is closed, its cost follows the cost of its group
+ */
+public final class OpenQuote {
+
+    private final long id;
+    private final double distance;
+    private final QuoteGroup group;
+
+    OpenQuote(long id, double distance, QuoteGroup group) {
+        this.id = id;
+        this.distance = distance;
+        this.group = group;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public GoodsDimension getGoodsDimension() {
+        return group.getGoodsDimension();
+    }
+
+    public boolean isFragileGoods() {
+        return group.isFragileGoods();
+    }
+
+    public QuoteGroup getGroup() {
+        return group;
+    }
+
+    /**
+     * @return current cost (kopecks)
+     */
+    public long getCostInKopecks() {
+        return group.getCostInKopecks();
+    }
+
+    /**
+     * @return current cost (rub)
+     */
+    public BigDecimal getCost() {
+        return BigDecimal.valueOf(group.getCostInKopecks(), 2);
+    }
+
+    @Override
+    public String toString() {
+        return "Quote " + id + " for " + getGoodsDimension() + " goods (fragile = '" + isFragileGoods() + "') on "
+                + distance + "km is " + getCost() + "RUB";
+    }
+
+}
@@ -0,0 +1,172 @@
+package yandex.praktikum.aqa.task.quotes;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of open quotes grouped by distance tier, goods dimension and fragility. Quotes of a group always
+ * cost the same, so when the delivery service workload moves to another tier only one cost per group is
+ * recalculated and listeners are notified once per group, whatever the number of open quotes.
+ * Groups are repriced as well when the tariff of the manager is replaced, this is noticed on the next
+ * {@link #open} or {@link #setDeliveryServiceWorkload} call.
+ * <p>
+ * Pricing rules may split a tariff tier at any distance or workload, so a group has no single cost under them:
+ * the registry throws {@link IllegalStateException} while {@link DeliveryManager#setPricingRules pricing rules}
+ * are set.
+ */
+public class OpenQuoteRegistry {
+
+    private static final GoodsDimension[] GOODS_DIMENSIONS = GoodsDimension.values();
+
+    private final DeliveryManager deliveryManager;
+    private final QuoteGroup[] groups = new QuoteGroup[Tariff.DISTANCE_TIERS * GOODS_DIMENSIONS.length * 2];
+    private final List<QuoteGroupListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private int deliveryServiceWorkload;
+    private int workloadTier;
+    // tariff the groups are priced with
+    private Tariff tariff;
+
+    /**
+     * @param deliveryManager           - manager quotes are calculated with
+     * @param deliveryServiceWorkload   - current delivery service workload in percents (0-100)
+     */
+    public OpenQuoteRegistry(DeliveryManager deliveryManager, int deliveryServiceWorkload) {
+        if (deliveryManager == null) {
+            throw new IllegalArgumentException("Delivery manager is absent");
+        }
+        this.deliveryManager = deliveryManager;
+        checkTariffPricing();
+        this.deliveryServiceWorkload = deliveryServiceWorkload;
+        this.workloadTier = Tariff.getWorkloadTier(deliveryServiceWorkload);
+        this.tariff = deliveryManager.getTariff();
+        for (int distanceTier = 0; distanceTier < Tariff.DISTANCE_TIERS; distanceTier++) {
+            for (GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    QuoteGroup group = new QuoteGroup(distanceTier, goodsDimension, isFragileGoods);
+                    group.setCost(tariff.getCostByTiers(distanceTier, goodsDimension.ordinal(), isFragileGoods,
+                            workloadTier));
+                    groups[getGroupIndex(distanceTier, goodsDimension, isFragileGoods)] = group;
+                }
+            }
+        }
+    }
+
+    private void checkTariffPricing() {
+        if (deliveryManager.getPricingRules() != null) {
+            throw new IllegalStateException("Open quotes are grouped by tariff tiers and can't be priced"
+                    + " with pricing rules");
+        }
+    }
+
+    private static int getGroupIndex(int distanceTier, GoodsDimension goodsDimension, boolean isFragileGoods) {
+        return ((distanceTier * GOODS_DIMENSIONS.length + goodsDimension.ordinal()) << 1) + (isFragileGoods ? 1 : 0);
+    }
+
+    public void addListener(QuoteGroupListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(QuoteGroupListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Quote delivery with the current workload and keep the quote open
+     *
+     * @param distance          - distance to destination (km)
+     * @param goodsDimension    - goods dimension (little/big)
+     * @param isFragileGoods    - flag for fragile goods (true/false)
+     * @return open quote
+     * @throws InvalidDeliveryException when delivery can't be quoted
+     */
+    public synchronized OpenQuote open(double distance, GoodsDimension goodsDimension, boolean isFragileGoods)
+            throws InvalidDeliveryException {
+        checkTariffPricing();
+        if (tariff != deliveryManager.getTariff()) {
+            repriceAll();
+        }
+        long cost = deliveryManager.getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        QuoteGroup group = groups[getGroupIndex(Tariff.getDistanceTier(distance), goodsDimension, isFragileGoods)];
+        if (cost != group.getCostInKopecks()) {
+            // tariff is replaced while the quote is calculated
+            repriceAll();
+        }
+        OpenQuote quote = new OpenQuote(nextId.incrementAndGet(), distance, group);
+        group.add(quote);
+        return quote;
+    }
+
+    /**
+     * Stop repricing the quote
+     *
+     * @param quote - open quote
+     * @return true if quote was open
+     */
+    public boolean close(OpenQuote quote) {
+        return quote.getGroup().remove(quote);
+    }
+
+    /**
+     * @return number of open quotes
+     */
+    public int size() {
+        int size = 0;
+        for (QuoteGroup group : groups) {
+            size += group.getQuotes().size();
+        }
+        return size;
+    }
+
+    /**
+     * Update delivery service workload, groups with open quotes are repriced when the workload tier
+     * or the tariff changes
+     *
+     * @param deliveryServiceWorkload - delivery service workload in percents (0-100)
+     * @return number of repriced groups
+     */
+    public synchronized int setDeliveryServiceWorkload(int deliveryServiceWorkload) {
+        checkTariffPricing();
+        this.deliveryServiceWorkload = deliveryServiceWorkload;
+        int newWorkloadTier = Tariff.getWorkloadTier(deliveryServiceWorkload);
+        if (newWorkloadTier == workloadTier && tariff == deliveryManager.getTariff()) {
+            return 0;
+        }
+        workloadTier = newWorkloadTier;
+        return repriceAll();
+    }
+
+    /**
+     * Reprice groups with the current tariff, e.g. after the tariff is replaced
+     *
+     * @return number of groups with open quotes whose cost changed
+     */
+    public synchronized int repriceAll() {
+        checkTariffPricing();
+        tariff = deliveryManager.getTariff();
+        int repricedGroups = 0;
+        for (QuoteGroup group : groups) {
+            long oldCost = group.getCostInKopecks();
+            long newCost = tariff.getCostByTiers(group.getDistanceTier(), group.getGoodsDimension().ordinal(),
+                    group.isFragileGoods(), workloadTier);
+            if (newCost == oldCost) {
+                continue;
+            }
+            group.setCost(newCost);
+            if (!group.isEmpty()) {
+                repricedGroups++;
+                for (QuoteGroupListener listener : listeners) {
+                    listener.onRepriced(group, oldCost);
+                }
+            }
+        }
+        return repricedGroups;
+    }
+
+}
@@ -0,0 +1,76 @@
+package yandex.praktikum.aqa.task.quotes;
+
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open quotes with the same distance tier, goods dimension and fragility, which always have the same cost
+ */
+public final class QuoteGroup {
+
+    private final int distanceTier;
+    private final GoodsDimension goodsDimension;
+    private final boolean isFragileGoods;
+    private final Set<OpenQuote> quotes = ConcurrentHashMap.newKeySet();
+    private volatile long cost;
+
+    QuoteGroup(int distanceTier, GoodsDimension goodsDimension, boolean isFragileGoods) {
+        this.distanceTier = distanceTier;
+        this.goodsDimension = goodsDimension;
+        this.isFragileGoods = isFragileGoods;
+    }
+
+    /**
+     * @return distance tier, see {@link yandex.praktikum.aqa.task.tariff.Tariff#getDistanceTier(double)}
+     */
+    public int getDistanceTier() {
+        return distanceTier;
+    }
+
+    public GoodsDimension getGoodsDimension() {
+        return goodsDimension;
+    }
+
+    public boolean isFragileGoods() {
+        return isFragileGoods;
+    }
+
+    /**
+     * @return cost of every quote of the group (kopecks)
+     */
+    public long getCostInKopecks() {
+        return cost;
+    }
+
+    void setCost(long cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * @return live unmodifiable view of open quotes of the group
+     */
+    public Set<OpenQuote> getQuotes() {
+        return Collections.unmodifiableSet(quotes);
+    }
+
+    boolean add(OpenQuote quote) {
+        return quotes.add(quote);
+    }
+
+    boolean remove(OpenQuote quote) {
+        return quotes.remove(quote);
+    }
+
+    boolean isEmpty() {
+        return quotes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return goodsDimension + " goods (fragile = '" + isFragileGoods + "') in distance tier " + distanceTier;
+    }
+
+}
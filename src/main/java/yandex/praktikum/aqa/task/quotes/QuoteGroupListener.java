@@ -0,0 +1,13 @@
+package yandex.praktikum.aqa.task.quotes;
+
+public interface QuoteGroupListener {
+
+    /**
+     * Called once per repriced group, every quote of the group has the new cost
+     *
+     * @param group     - repriced group
+     * @param oldCost   - previous cost of the group (kopecks)
+     */
+    void onRepriced(QuoteGroup group, long oldCost);
+
+}
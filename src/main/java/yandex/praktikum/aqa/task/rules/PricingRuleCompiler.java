@@ -0,0 +1,236 @@
+package yandex.praktikum.aqa.task.rules;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Method handle combinators pricing rules are compiled with. Every compiled rule takes the delivery data
+ * {@code (double distance, int goodsDimension, boolean isFragileGoods, int deliveryServiceWorkload, int[] attributes)},
+ * so rules are combined without any adaptation and the whole rule set becomes one method handle tree.
+ */
+final class PricingRuleCompiler {
+
+    static final Class<?>[] PARAMETERS = {double.class, int.class, boolean.class, int.class, int[].class};
+    static final int DISTANCE = 0;
+    static final int GOODS_DIMENSION = 1;
+    static final int FRAGILE_GOODS = 2;
+    static final int DELIVERY_SERVICE_WORKLOAD = 3;
+    static final int ATTRIBUTES = 4;
+
+    static final MethodType CONDITION_TYPE = MethodType.methodType(boolean.class, PARAMETERS);
+    static final MethodType AMOUNT_TYPE = MethodType.methodType(long.class, PARAMETERS);
+
+    private static final MethodHandle LESS;
+    private static final MethodHandle LESS_OR_EQUAL;
+    private static final MethodHandle GREATER;
+    private static final MethodHandle GREATER_OR_EQUAL;
+    private static final MethodHandle EQUAL;
+    private static final MethodHandle EQUAL_CODE;
+    private static final MethodHandle NOT;
+    private static final MethodHandle ADD;
+    private static final MethodHandle MULTIPLY;
+    private static final MethodHandle PRICE;
+    private static final MethodHandle ATTRIBUTE = MethodHandles.arrayElementGetter(int[].class);
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType comparison = MethodType.methodType(boolean.class, double.class, double.class);
+        MethodType operation = MethodType.methodType(long.class, long.class, long.class);
+        try {
+            LESS = lookup.findStatic(PricingRuleCompiler.class, "isLess", comparison);
+            LESS_OR_EQUAL = lookup.findStatic(PricingRuleCompiler.class, "isLessOrEqual", comparison);
+            GREATER = lookup.findStatic(PricingRuleCompiler.class, "isGreater", comparison);
+            GREATER_OR_EQUAL = lookup.findStatic(PricingRuleCompiler.class, "isGreaterOrEqual", comparison);
+            EQUAL = lookup.findStatic(PricingRuleCompiler.class, "isEqual", comparison);
+            EQUAL_CODE = lookup.findStatic(PricingRuleCompiler.class, "isEqual",
+                    MethodType.methodType(boolean.class, int.class, int.class));
+            NOT = lookup.findStatic(PricingRuleCompiler.class, "not",
+                    MethodType.methodType(boolean.class, boolean.class));
+            ADD = lookup.findStatic(Math.class, "addExact", operation);
+            MULTIPLY = lookup.findStatic(Math.class, "multiplyExact", operation);
+            PRICE = lookup.findStatic(PricingRuleCompiler.class, "price",
+                    MethodType.methodType(long.class, long.class, long.class, long.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PricingRuleCompiler() {
+    }
+
+    private static boolean isLess(double value, double bound) {
+        return value < bound;
+    }
+
+    private static boolean isLessOrEqual(double value, double bound) {
+        return value <= bound;
+    }
+
+    private static boolean isGreater(double value, double bound) {
+        return value > bound;
+    }
+
+    private static boolean isGreaterOrEqual(double value, double bound) {
+        return value >= bound;
+    }
+
+    private static boolean isEqual(double value, double bound) {
+        return value == bound;
+    }
+
+    private static boolean isEqual(int code, int expectedCode) {
+        return code == expectedCode;
+    }
+
+    private static boolean not(boolean value) {
+        return !value;
+    }
+
+    private static long price(long amount, long factor, long divisor) {
+        return Math.multiplyExact(amount, factor) / divisor;
+    }
+
+    /**
+     * @param parameter - index of the numeric delivery data parameter
+     * @param operator  - comparison operator: {@code <, <=, >, >=, =, !=}
+     * @param bound     - value the parameter is compared with
+     * @return condition comparing the parameter with the bound
+     */
+    static MethodHandle compare(int parameter, String operator, double bound) {
+        return compare(MethodHandles.identity(PARAMETERS[parameter]), parameter, operator, bound);
+    }
+
+    /**
+     * @param attribute - index of the attribute in the attributes parameter
+     * @param operator  - comparison operator: {@code <, <=, >, >=, =, !=}
+     * @param bound     - value the attribute is compared with
+     * @return condition comparing the attribute with the bound
+     */
+    static MethodHandle compareAttribute(int attribute, String operator, double bound) {
+        return compare(getAttribute(attribute), ATTRIBUTES, operator, bound);
+    }
+
+    private static MethodHandle compare(MethodHandle value, int parameter, String operator, double bound) {
+        MethodHandle comparison;
+        switch (operator) {
+            case "<":
+                comparison = LESS;
+                break;
+            case "<=":
+                comparison = LESS_OR_EQUAL;
+                break;
+            case ">":
+                comparison = GREATER;
+                break;
+            case ">=":
+                comparison = GREATER_OR_EQUAL;
+                break;
+            case "=":
+            case "!=":
+                comparison = EQUAL;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown comparison operator " + operator);
+        }
+        comparison = MethodHandles.filterArguments(MethodHandles.insertArguments(comparison, 1, bound), 0,
+                value.asType(MethodType.methodType(double.class, PARAMETERS[parameter])));
+        comparison = MethodHandles.permuteArguments(comparison, CONDITION_TYPE, parameter);
+        return operator.equals("!=") ? not(comparison) : comparison;
+    }
+
+    /**
+     * @param parameter - index of the code parameter
+     * @param code      - expected code
+     * @return condition checking that parameter is equal to the code
+     */
+    static MethodHandle hasCode(int parameter, int code) {
+        return MethodHandles.permuteArguments(MethodHandles.insertArguments(EQUAL_CODE, 1, code),
+                CONDITION_TYPE, parameter);
+    }
+
+    /**
+     * @param attribute - index of the attribute in the attributes parameter
+     * @param code      - expected code
+     * @return condition checking that attribute is equal to the code
+     */
+    static MethodHandle attributeHasCode(int attribute, int code) {
+        MethodHandle condition = MethodHandles.filterArguments(MethodHandles.insertArguments(EQUAL_CODE, 1, code), 0,
+                getAttribute(attribute));
+        return MethodHandles.permuteArguments(condition, CONDITION_TYPE, ATTRIBUTES);
+    }
+
+    private static MethodHandle getAttribute(int attribute) {
+        return MethodHandles.insertArguments(ATTRIBUTE, 1, attribute);
+    }
+
+    /**
+     * @param parameter - index of the boolean parameter
+     * @return condition that is the parameter itself
+     */
+    static MethodHandle isTrue(int parameter) {
+        return MethodHandles.permuteArguments(MethodHandles.identity(boolean.class), CONDITION_TYPE, parameter);
+    }
+
+    static MethodHandle not(MethodHandle condition) {
+        return MethodHandles.filterReturnValue(condition, NOT);
+    }
+
+    static MethodHandle and(MethodHandle left, MethodHandle right) {
+        return MethodHandles.guardWithTest(left, right, constant(false));
+    }
+
+    static MethodHandle or(MethodHandle left, MethodHandle right) {
+        return MethodHandles.guardWithTest(left, constant(true), right);
+    }
+
+    static MethodHandle constant(boolean value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(boolean.class, value), 0, PARAMETERS);
+    }
+
+    static MethodHandle constant(long value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(long.class, value), 0, PARAMETERS);
+    }
+
+    /**
+     * @param condition - condition to check first
+     * @param value     - amount when condition holds
+     * @param otherwise - amount when condition doesn't hold
+     * @return amount of the first holding condition
+     */
+    static MethodHandle choose(MethodHandle condition, long value, MethodHandle otherwise) {
+        return MethodHandles.guardWithTest(condition, constant(value), otherwise);
+    }
+
+    static MethodHandle add(MethodHandle left, MethodHandle right) {
+        return combine(ADD, left, right);
+    }
+
+    static MethodHandle multiply(MethodHandle left, MethodHandle right) {
+        return combine(MULTIPLY, left, right);
+    }
+
+    /**
+     * @param amount   - cost before factors (kopecks)
+     * @param factor   - product of factors multiplied by the divisor
+     * @param divisor  - power of ten the factor is scaled by
+     * @return cost rounded down to kopecks
+     */
+    static MethodHandle price(MethodHandle amount, MethodHandle factor, long divisor) {
+        return combine(MethodHandles.insertArguments(PRICE, 2, divisor), amount, factor);
+    }
+
+    /**
+     * @param operation - {@code (long, long)long} operation
+     * @param left      - amount passed as the first operand
+     * @param right     - amount passed as the second operand
+     * @return amount that applies the operation to both amounts of the same delivery data
+     */
+    private static MethodHandle combine(MethodHandle operation, MethodHandle left, MethodHandle right) {
+        MethodHandle target = MethodHandles.dropArguments(operation, 2, PARAMETERS);
+        // each fold computes the leading operand from the arguments that follow it, so the right one is folded last
+        target = MethodHandles.foldArguments(target, MethodHandles.dropArguments(left, 0, long.class));
+        return MethodHandles.foldArguments(target, right);
+    }
+
+}
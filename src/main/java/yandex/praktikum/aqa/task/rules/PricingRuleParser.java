@@ -0,0 +1,400 @@
+package yandex.praktikum.aqa.task.rules;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parser of pricing rules, see {@link PricingRules} for the language. Every rule is compiled
+ * with {@link PricingRuleCompiler} right when it is parsed.
+ */
+final class PricingRuleParser {
+
+    private static final int MAX_FACTOR_SCALE = 18;
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+            "distance", "workload", "dimension", "fragile", "not", "and", "or", "if"));
+
+    private final String[] lines;
+    private int lineNumber;
+    private List<String> tokens;
+    private int position;
+
+    private Long version;
+    private long minCost;
+    private MethodHandle amount = PricingRuleCompiler.constant(0L);
+    private MethodHandle factor = PricingRuleCompiler.constant(1L);
+    private int factorScale;
+    private final List<RejectionReason> rejectionReasons = new ArrayList<>();
+    private final List<String> rejectionMessages = new ArrayList<>();
+    private final List<MethodHandle> rejectionConditions = new ArrayList<>();
+    private final List<String> attributeNames = new ArrayList<>();
+    private final List<List<String>> attributeValues = new ArrayList<>();
+
+    PricingRuleParser(String text) {
+        this.lines = text.split("\r?\n|\r", -1);
+    }
+
+    PricingRules parse() throws InvalidTariffException {
+        for (lineNumber = 1; lineNumber <= lines.length; lineNumber++) {
+            tokens = tokenize(lines[lineNumber - 1]);
+            position = 0;
+            if (!tokens.isEmpty()) {
+                parseRule();
+                if (position < tokens.size()) {
+                    throw error("Unexpected '" + tokens.get(position) + "'");
+                }
+            }
+        }
+        if (version == null) {
+            throw new InvalidTariffException("Pricing rules version is absent");
+        }
+        MethodHandle cost = PricingRuleCompiler.price(amount, factor, BigDecimal.ONE.scaleByPowerOfTen(factorScale)
+                .longValueExact());
+        // absent goods dimension is rejected after the reject rules, as the tariff checks it after the fragile limit
+        rejectionReasons.add(RejectionReason.GOODS_DIMENSION_ABSENT);
+        rejectionMessages.add(PricingRules.GOODS_DIMENSION_ABSENT_MESSAGE);
+        rejectionConditions.add(PricingRuleCompiler.hasCode(PricingRuleCompiler.GOODS_DIMENSION,
+                DeliveryManager.NO_GOODS_DIMENSION));
+        for (int i = rejectionConditions.size() - 1; i >= 0; i--) {
+            cost = PricingRuleCompiler.choose(rejectionConditions.get(i), PricingRules.REJECTED - i, cost);
+        }
+        return new PricingRules(version, cost, minCost, rejectionReasons.toArray(new RejectionReason[0]),
+                rejectionMessages.toArray(new String[0]), attributeNames, attributeValues);
+    }
+
+    private void parseRule() throws InvalidTariffException {
+        String keyword = next();
+        switch (keyword) {
+            case "version":
+                if (version != null) {
+                    throw error("Pricing rules version is repeated");
+                }
+                try {
+                    version = Long.parseLong(next());
+                } catch (NumberFormatException e) {
+                    throw error("Version is not a number");
+                }
+                if (version < 0) {
+                    throw error("Version is negative");
+                }
+                break;
+            case "min":
+                minCost = toKopecks(parseNumber());
+                break;
+            case "add":
+                amount = PricingRuleCompiler.add(amount, parseAmounts());
+                break;
+            case "multiply":
+                parseFactors();
+                break;
+            case "reject":
+                parseRejection();
+                break;
+            case "attribute":
+                parseAttribute();
+                break;
+            default:
+                throw error("Unknown rule '" + keyword + "'");
+        }
+    }
+
+    /**
+     * Parse {@code <name>: <amount> if <condition>, ..., <amount>}
+     */
+    private MethodHandle parseAmounts() throws InvalidTariffException {
+        List<BigDecimal> values = new ArrayList<>();
+        List<MethodHandle> conditions = parseChoices(values);
+        MethodHandle result = PricingRuleCompiler.constant(toKopecks(values.get(conditions.size())));
+        for (int i = conditions.size() - 1; i >= 0; i--) {
+            result = PricingRuleCompiler.choose(conditions.get(i), toKopecks(values.get(i)), result);
+        }
+        return result;
+    }
+
+    /**
+     * Parse {@code <name>: <factor> if <condition>, ..., <factor>}, factors of one rule are scaled to the same power
+     * of ten, which is added to the scale of the product of all factors
+     */
+    private void parseFactors() throws InvalidTariffException {
+        List<BigDecimal> values = new ArrayList<>();
+        List<MethodHandle> conditions = parseChoices(values);
+        int scale = 0;
+        for (BigDecimal value : values) {
+            scale = Math.max(scale, value.stripTrailingZeros().scale());
+        }
+        factorScale += scale;
+        if (factorScale > MAX_FACTOR_SCALE) {
+            throw error("Factors have more than " + MAX_FACTOR_SCALE + " decimal places in total");
+        }
+        MethodHandle result = PricingRuleCompiler.constant(toUnscaled(values.get(conditions.size()), scale));
+        for (int i = conditions.size() - 1; i >= 0; i--) {
+            result = PricingRuleCompiler.choose(conditions.get(i), toUnscaled(values.get(i), scale), result);
+        }
+        factor = PricingRuleCompiler.multiply(factor, result);
+    }
+
+    private List<MethodHandle> parseChoices(List<BigDecimal> values) throws InvalidTariffException {
+        next();
+        expect(":");
+        List<MethodHandle> conditions = new ArrayList<>();
+        while (true) {
+            values.add(parseNumber());
+            if (!accept("if")) {
+                return conditions;
+            }
+            conditions.add(parseCondition());
+            expect(",");
+        }
+    }
+
+    /**
+     * Parse {@code <reason> ["message"] if <condition>}
+     */
+    private void parseRejection() throws InvalidTariffException {
+        String reason = next();
+        try {
+            rejectionReasons.add(RejectionReason.valueOf(reason));
+        } catch (IllegalArgumentException e) {
+            throw error("Unknown rejection reason '" + reason + "'");
+        }
+        String message = reason;
+        if (peek().startsWith("\"")) {
+            message = next();
+            message = message.substring(1, message.length() - 1);
+        }
+        rejectionMessages.add(message);
+        expect("if");
+        rejectionConditions.add(parseCondition());
+    }
+
+    /**
+     * Parse {@code <name>} of a numeric attribute or {@code <name>: <value>, ..., <value>} of an attribute
+     * coded by the position of its value
+     */
+    private void parseAttribute() throws InvalidTariffException {
+        String name = parseName();
+        if (RESERVED_WORDS.contains(name) || attributeNames.contains(name)) {
+            throw error("Attribute '" + name + "' is already defined");
+        }
+        List<String> values = null;
+        if (accept(":")) {
+            values = new ArrayList<>();
+            do {
+                String value = parseName();
+                if (values.contains(value)) {
+                    throw error("Attribute value '" + value + "' is repeated");
+                }
+                values.add(value);
+            } while (accept(","));
+            values = Collections.unmodifiableList(values);
+        }
+        attributeNames.add(name);
+        attributeValues.add(values);
+    }
+
+    private String parseName() throws InvalidTariffException {
+        String name = next();
+        if (!Character.isLetter(name.charAt(0)) || name.indexOf('.') >= 0 || name.indexOf('-') >= 0) {
+            throw error("'" + name + "' is not a name");
+        }
+        return name;
+    }
+
+    private MethodHandle parseCondition() throws InvalidTariffException {
+        MethodHandle condition = parseConjunction();
+        while (accept("or")) {
+            condition = PricingRuleCompiler.or(condition, parseConjunction());
+        }
+        return condition;
+    }
+
+    private MethodHandle parseConjunction() throws InvalidTariffException {
+        MethodHandle condition = parseUnary();
+        while (accept("and")) {
+            condition = PricingRuleCompiler.and(condition, parseUnary());
+        }
+        return condition;
+    }
+
+    private MethodHandle parseUnary() throws InvalidTariffException {
+        if (accept("not")) {
+            return PricingRuleCompiler.not(parseUnary());
+        }
+        if (accept("(")) {
+            MethodHandle condition = parseCondition();
+            expect(")");
+            return condition;
+        }
+        String variable = next();
+        switch (variable) {
+            case "fragile":
+                return PricingRuleCompiler.isTrue(PricingRuleCompiler.FRAGILE_GOODS);
+            case "distance":
+                return PricingRuleCompiler.compare(PricingRuleCompiler.DISTANCE, parseOperator(),
+                        parseNumber().doubleValue());
+            case "workload":
+                return PricingRuleCompiler.compare(PricingRuleCompiler.DELIVERY_SERVICE_WORKLOAD, parseOperator(),
+                        parseNumber().doubleValue());
+            case "dimension":
+                String operator = parseOperator();
+                if (!operator.equals("=") && !operator.equals("!=")) {
+                    throw error("Dimension is compared only with '=' and '!='");
+                }
+                String dimension = next();
+                MethodHandle condition;
+                try {
+                    condition = PricingRuleCompiler.hasCode(PricingRuleCompiler.GOODS_DIMENSION,
+                            GoodsDimension.valueOf(dimension).ordinal());
+                } catch (IllegalArgumentException e) {
+                    throw error("Unknown goods dimension '" + dimension + "'");
+                }
+                return operator.equals("=") ? condition : PricingRuleCompiler.not(condition);
+            default:
+                return parseAttributeCondition(variable);
+        }
+    }
+
+    private MethodHandle parseAttributeCondition(String name) throws InvalidTariffException {
+        int attribute = attributeNames.indexOf(name);
+        if (attribute < 0) {
+            throw error("Unknown variable '" + name + "'");
+        }
+        String operator = parseOperator();
+        List<String> values = attributeValues.get(attribute);
+        if (values == null) {
+            return PricingRuleCompiler.compareAttribute(attribute, operator, parseNumber().doubleValue());
+        }
+        if (!operator.equals("=") && !operator.equals("!=")) {
+            throw error("Attribute '" + name + "' is compared only with '=' and '!='");
+        }
+        String value = next();
+        int code = values.indexOf(value);
+        if (code < 0) {
+            throw error("Unknown value '" + value + "' of attribute '" + name + "'");
+        }
+        MethodHandle condition = PricingRuleCompiler.attributeHasCode(attribute, code);
+        return operator.equals("=") ? condition : PricingRuleCompiler.not(condition);
+    }
+
+    private String parseOperator() throws InvalidTariffException {
+        String operator = next();
+        switch (operator) {
+            case "<":
+            case "<=":
+            case ">":
+            case ">=":
+            case "=":
+            case "!=":
+                return operator;
+            default:
+                throw error("Unknown comparison operator '" + operator + "'");
+        }
+    }
+
+    private BigDecimal parseNumber() throws InvalidTariffException {
+        String token = next();
+        try {
+            return new BigDecimal(token);
+        } catch (NumberFormatException e) {
+            throw error("'" + token + "' is not a number");
+        }
+    }
+
+    private long toKopecks(BigDecimal cost) throws InvalidTariffException {
+        if (cost.signum() < 0) {
+            throw error("Cost " + cost + " is negative");
+        }
+        try {
+            return cost.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw error("Cost " + cost + " is not a whole number of kopecks");
+        }
+    }
+
+    private long toUnscaled(BigDecimal factor, int scale) throws InvalidTariffException {
+        if (factor.signum() < 0) {
+            throw error("Factor " + factor + " is negative");
+        }
+        try {
+            return factor.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw error("Factor " + factor + " is too large");
+        }
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : "";
+    }
+
+    private String next() throws InvalidTariffException {
+        if (position == tokens.size()) {
+            throw error("Unexpected end of rule");
+        }
+        return tokens.get(position++);
+    }
+
+    private boolean accept(String token) {
+        if (peek().equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) throws InvalidTariffException {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'" + (position < tokens.size() ? " instead of '" + peek() + "'" : ""));
+        }
+    }
+
+    private InvalidTariffException error(String message) {
+        return new InvalidTariffException("Pricing rules line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * Split line into words, numbers, quoted strings, operators and punctuation, '#' starts a comment
+     */
+    private List<String> tokenize(String line) throws InvalidTariffException {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (c == '#') {
+                break;
+            } else if (c == '"') {
+                i = line.indexOf('"', i + 1) + 1;
+                if (i == 0) {
+                    throw error("Unterminated string");
+                }
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-') {
+                while (i < line.length() && (Character.isLetterOrDigit(line.charAt(i)) || line.charAt(i) == '_'
+                        || line.charAt(i) == '.' || line.charAt(i) == '-')) {
+                    i++;
+                }
+            } else if ((c == '<' || c == '>' || c == '!') && i + 1 < line.length() && line.charAt(i + 1) == '=') {
+                i += 2;
+            } else if ("<>=:,()".indexOf(c) >= 0) {
+                i++;
+            } else {
+                throw error("Unexpected character '" + c + "'");
+            }
+            result.add(line.substring(start, i));
+        }
+        return result;
+    }
+
+}
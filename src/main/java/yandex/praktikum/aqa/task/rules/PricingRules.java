@@ -0,0 +1,295 @@
+package yandex.praktikum.aqa.task.rules;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Delivery pricing rules written in a small declarative language and compiled on load into a single
+ * {@link MethodHandle}, so quoting runs the rules without interpreting them. One rule per line, '#' starts a comment:
+ * <pre>
+ * version 1
+ * attribute hour
+ * attribute region: MOSCOW, SAINT_PETERSBURG, OTHER
+ * reject FRAGILE_GOODS_BEYOND_LIMIT "Impossible to delivery fragile goods beyond 30km" if fragile and distance &gt; 30
+ * add distance: 300 if distance &gt; 30, 200 if distance &gt; 10, 100 if distance &gt; 2, 50
+ * add goods: 200 if dimension = BIG, 100
+ * add fragility: 300 if fragile, 0
+ * multiply workload: 1.6 if workload &gt;= 80, 1.4 if workload &gt;= 60, 1.2 if workload &gt;= 40, 1
+ * add night: 150 if hour &gt;= 22 or hour &lt; 6, 0
+ * multiply region: 1.25 if region = MOSCOW, 1
+ * min 400
+ * </pre>
+ * The cost is the sum of the first matching amount (rub) of every {@code add} rule multiplied by the first matching
+ * factor of every {@code multiply} rule, rounded down to kopecks and raised to the {@code min} cost. Delivery is
+ * rejected by the first {@code reject} rule whose condition holds, delivery without goods dimension is rejected
+ * with {@link RejectionReason#GOODS_DIMENSION_ABSENT} when no reject rule holds. Conditions compare {@code distance} (km) and
+ * {@code workload} (percents) with numbers by {@code <, <=, >, >=, =, !=}, {@code dimension} with
+ * {@link GoodsDimension} names by {@code =, !=}, use {@code fragile} as is and are combined with
+ * {@code not, and, or} and parentheses.
+ * <p>
+ * Inputs besides the delivery data, like the order hour, the delivery region or a finer size class,
+ * are declared by {@code attribute} rules before use and passed as an {@code int[]} in the order of declaration.
+ * A numeric attribute is compared with numbers as {@code distance}, an attribute with listed values is compared
+ * with them by {@code =, !=} and passed as the position of the value, see {@link #getAttributeCode(String, String)}.
+ * Absent attributes are zeros.
+ */
+public final class PricingRules {
+
+    /**
+     * Rules of {@link yandex.praktikum.aqa.task.tariff.Tariff#DEFAULT}
+     */
+    public static final String DEFAULT_RULES = "version 1\n"
+            + "reject FRAGILE_GOODS_BEYOND_LIMIT \"Impossible to delivery fragile goods beyond 30km\""
+            + " if fragile and distance > 30\n"
+            + "add distance: 300 if distance > 30, 200 if distance > 10, 100 if distance > 2, 50\n"
+            + "add goods: 200 if dimension = BIG, 100\n"
+            + "add fragility: 300 if fragile, 0\n"
+            + "multiply workload: 1.6 if workload >= 80, 1.4 if workload >= 60, 1.2 if workload >= 40, 1\n"
+            + "min 400\n";
+
+    /**
+     * Cost the compiled rules return for delivery rejected by the first reject rule, the next rules give
+     * {@code REJECTED - 1}, {@code REJECTED - 2} and so on
+     */
+    public static final long REJECTED = -1;
+
+    static final String GOODS_DIMENSION_ABSENT_MESSAGE
+            = "Goods dimension type is absent, please provide correct value";
+
+    private final long version;
+    private final MethodHandle cost;
+    private final long minCostInKopecks;
+    private final RejectionReason[] rejectionReasons;
+    private final String[] rejectionMessages;
+    private final InvalidDeliveryException[] stacklessRejections;
+    private final List<String> attributeNames;
+    private final List<List<String>> attributeValues;
+    private final int[] absentAttributes;
+
+    PricingRules(long version, MethodHandle cost, long minCostInKopecks, RejectionReason[] rejectionReasons,
+                 String[] rejectionMessages, List<String> attributeNames, List<List<String>> attributeValues) {
+        this.version = version;
+        this.cost = cost;
+        this.minCostInKopecks = minCostInKopecks;
+        this.rejectionReasons = rejectionReasons;
+        this.rejectionMessages = rejectionMessages;
+        this.stacklessRejections = new InvalidDeliveryException[rejectionReasons.length];
+        for (int i = 0; i < rejectionReasons.length; i++) {
+            stacklessRejections[i] = InvalidDeliveryException.stackless(rejectionMessages[i], rejectionReasons[i]);
+        }
+        this.attributeNames = attributeNames;
+        this.attributeValues = attributeValues;
+        this.absentAttributes = new int[attributeNames.size()];
+    }
+
+    /**
+     * Parse and compile pricing rules, see class description for the language
+     *
+     * @param text - pricing rules
+     * @return compiled rules
+     * @throws InvalidTariffException when rules are malformed, the message has the line number
+     */
+    public static PricingRules parse(String text) throws InvalidTariffException {
+        return new PricingRuleParser(text).parse();
+    }
+
+    /**
+     * Load and compile pricing rules file, see class description for the language
+     *
+     * @param file - pricing rules file
+     * @return compiled rules
+     * @throws IOException            when file can't be read
+     * @throws InvalidTariffException when rules are malformed, the message has the line number
+     */
+    public static PricingRules load(Path file) throws IOException, InvalidTariffException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return version of the rules
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return minimal delivery cost (kopecks), costs below it are raised to it
+     */
+    public long getMinCostInKopecks() {
+        return minCostInKopecks;
+    }
+
+    /**
+     * @return names of the attributes in the order they are passed
+     */
+    public List<String> getAttributeNames() {
+        return attributeNames;
+    }
+
+    /**
+     * @param attribute - attribute name
+     * @return position of the attribute in the attributes array
+     */
+    public int getAttributeIndex(String attribute) {
+        int index = attributeNames.indexOf(attribute);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown attribute " + attribute);
+        }
+        return index;
+    }
+
+    /**
+     * @param attribute - name of the attribute with listed values
+     * @param value     - value name
+     * @return code the value is passed as
+     */
+    public int getAttributeCode(String attribute, String value) {
+        List<String> values = attributeValues.get(getAttributeIndex(attribute));
+        if (values == null) {
+            throw new IllegalArgumentException("Attribute " + attribute + " is numeric");
+        }
+        int code = values.indexOf(value);
+        if (code < 0) {
+            throw new IllegalArgumentException("Unknown value " + value + " of attribute " + attribute);
+        }
+        return code;
+    }
+
+    /**
+     * @param attribute - attribute position
+     * @param value     - number of a numeric attribute or value name of an attribute with listed values
+     * @return value passed in the attributes array
+     * @throws IllegalArgumentException when value is not a number or not listed
+     */
+    public int parseAttribute(int attribute, String value) {
+        List<String> values = attributeValues.get(attribute);
+        return values == null ? Integer.parseInt(value) : getAttributeCode(attributeNames.get(attribute), value);
+    }
+
+    /**
+     * Compiled rules of type {@code (double distance, int goodsDimension, boolean isFragileGoods,
+     * int deliveryServiceWorkload, int[] attributes)long}, where goods dimension is {@link GoodsDimension#ordinal()}
+     * or {@link yandex.praktikum.aqa.task.DeliveryManager#NO_GOODS_DIMENSION}.
+     * The handle returns cost (kopecks) before it is raised to the {@link #getMinCostInKopecks() minimal cost}
+     * or a negative value for rejected delivery, see {@link #getRejectionReason(long)}.
+     * Keep it in a static final field to let JIT inline the rules into the caller.
+     *
+     * @return compiled rules
+     */
+    public MethodHandle getMethodHandle() {
+        return cost;
+    }
+
+    /**
+     * @param cost - value returned by {@link #getMethodHandle()}
+     * @return reason delivery is rejected, null if it is quoted
+     */
+    public RejectionReason getRejectionReason(long cost) {
+        return cost < 0 ? rejectionReasons[(int) (REJECTED - cost)] : null;
+    }
+
+    /**
+     * @param cost - negative value returned by {@link #getMethodHandle()}
+     * @return message of the reject rule
+     */
+    public String getRejectionMessage(long cost) {
+        return rejectionMessages[(int) (REJECTED - cost)];
+    }
+
+    /**
+     * @param cost - negative value returned by {@link #getMethodHandle()}
+     * @return preallocated exception of the reject rule without stack trace
+     */
+    public InvalidDeliveryException getStacklessRejection(long cost) {
+        return stacklessRejections[(int) (REJECTED - cost)];
+    }
+
+    /**
+     * Run the compiled rules, see {@link #getMethodHandle()}
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension code ({@link GoodsDimension#ordinal()}
+     *                                    or {@link yandex.praktikum.aqa.task.DeliveryManager#NO_GOODS_DIMENSION})
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param attributes                - attribute values in the order of declaration, null when all are absent
+     * @return cost (kopecks) before it is raised to the minimal cost, negative for rejected delivery
+     */
+    public long getCostBeforeMinCost(double distance, int goodsDimension, boolean isFragileGoods,
+                                     int deliveryServiceWorkload, int[] attributes) {
+        if (attributes == null) {
+            attributes = absentAttributes;
+        } else if (attributes.length != absentAttributes.length) {
+            throw new IllegalArgumentException("Pricing rules have " + absentAttributes.length
+                    + " attributes " + attributeNames + ", " + attributes.length + " given");
+        }
+        try {
+            return (long) cost.invokeExact(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload,
+                    attributes);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (rub)
+     */
+    public BigDecimal getCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                              int deliveryServiceWorkload) throws InvalidDeliveryException {
+        return BigDecimal.valueOf(getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload), 2);
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data in minor currency units
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                 int deliveryServiceWorkload) throws InvalidDeliveryException {
+        return getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, null);
+    }
+
+    /**
+     * Calculate and return delivery cost according to provided data and attributes in minor currency units
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @param attributes                - attribute values in the order of declaration, null when all are absent
+     * @return cost (kopecks)
+     */
+    public long getCostInKopecks(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                 int deliveryServiceWorkload, int[] attributes) throws InvalidDeliveryException {
+        long resultCost = getCostBeforeMinCost(distance, goodsDimension == null ? DeliveryManager.NO_GOODS_DIMENSION
+                : goodsDimension.ordinal(), isFragileGoods, deliveryServiceWorkload, attributes);
+        if (resultCost < 0) {
+            throw new InvalidDeliveryException(getRejectionMessage(resultCost), getRejectionReason(resultCost));
+        }
+        return Math.max(resultCost, minCostInKopecks);
+    }
+
+}
@@ -0,0 +1,452 @@
+package yandex.praktikum.aqa.task.tariff;
+
+import yandex.praktikum.aqa.task.DeliveryManager.GoodsDimension;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Immutable delivery tariff: prices for distance tiers (up to 2km, 10km, 30km and beyond), goods dimension
+ * and fragility, factors for delivery service workload tiers (below 40%, 60%, 80% and above), minimal cost
+ * and the longest distance fragile goods are delivered to.
+ * <p>
+ * Pricing rules are compiled into a matrix of costs in kopecks for every combination of tiers on construction,
+ * so quoting is a single array load. Tariff file is a properties file with keys
+ * {@code version, distance.short.cost, distance.medium.cost, distance.long.cost, distance.longest.cost,
+ * goods.big.cost, goods.little.cost, goods.fragile.cost, workload.low.factor, workload.medium.factor,
+ * workload.high.factor, workload.critical.factor, min.cost, fragile.distance.limit}.
+ */
+public final class Tariff {
+
+    public static final int DISTANCE_TIERS = 4;
+    public static final int WORKLOAD_TIERS = 4;
+
+    private static final GoodsDimension[] GOODS_DIMENSIONS = GoodsDimension.values();
+    private static final String[] DISTANCE_TIER_NAMES = {"short", "medium", "long", "longest"};
+    private static final String[] WORKLOAD_TIER_NAMES = {"low", "medium", "high", "critical"};
+
+    // distances and workloads checked against the rules for every tier: out of range values, inner points and bounds
+    private static final double[][] DISTANCE_TIER_SAMPLES = {
+            {-52.76, 0, 1.2, 2}, {2.01, 6.5, 10}, {10.01, 25, 30}, {30.01, 82.7, 5000}};
+    private static final int[][] WORKLOAD_TIER_SAMPLES = {
+            {-250, 0, 25, 39}, {40, 45, 59}, {60, 65, 79}, {80, 85, 100, 1530}};
+
+    /**
+     * Tariff the delivery service started with
+     */
+    public static final Tariff DEFAULT = createDefault();
+
+    private final long version;
+    private final BigDecimal[] distanceCosts;
+    private final BigDecimal bigGoodsCost;
+    private final BigDecimal littleGoodsCost;
+    private final BigDecimal fragileGoodsCost;
+    private final BigDecimal[] workloadFactors;
+    private final BigDecimal minCost;
+    private final long minCostInKopecks;
+    private final double fragileGoodsDistanceLimit;
+    private final String fragileGoodsRejectionMessage;
+    private final InvalidDeliveryException stacklessFragileGoodsRejection;
+
+    /**
+     * Delivery cost (kopecks) for every combination of distance tier, goods dimension, goods fragility
+     * and delivery service workload tier, indexed by {@link #getTariffIndex(int, int, boolean, int)}
+     */
+    private final long[] tariffMatrix;
+
+    /**
+     * Flags of tariff matrix cells whose rule based cost is below the minimal cost and is raised to it
+     */
+    private final boolean[] minCostCells;
+
+    /**
+     * @param version                   - tariff version recorded with every quote
+     * @param distanceCosts             - cost for every distance tier (rub)
+     * @param bigGoodsCost              - cost for big goods (rub)
+     * @param littleGoodsCost           - cost for little goods (rub)
+     * @param fragileGoodsCost          - extra cost for fragile goods (rub)
+     * @param workloadFactors           - factor for every delivery service workload tier (number)
+     * @param minCost                   - minimal delivery cost (rub)
+     * @param fragileGoodsDistanceLimit - longest distance fragile goods are delivered to (km)
+     * @throws InvalidTariffException when any value is absent or out of range
+     */
+    public Tariff(long version, BigDecimal[] distanceCosts, BigDecimal bigGoodsCost, BigDecimal littleGoodsCost,
+                  BigDecimal fragileGoodsCost, BigDecimal[] workloadFactors, BigDecimal minCost,
+                  BigDecimal fragileGoodsDistanceLimit) throws InvalidTariffException {
+        if (version < 0) {
+            throw new InvalidTariffException("Tariff version must not be negative, got " + version);
+        }
+        if (distanceCosts == null || distanceCosts.length != DISTANCE_TIERS) {
+            throw new InvalidTariffException("Tariff must have cost for each of " + DISTANCE_TIERS + " distance tiers");
+        }
+        if (workloadFactors == null || workloadFactors.length != WORKLOAD_TIERS) {
+            throw new InvalidTariffException("Tariff must have factor for each of " + WORKLOAD_TIERS + " workload tiers");
+        }
+        for (int i = 0; i < DISTANCE_TIERS; i++) {
+            checkNotNegative("distance." + DISTANCE_TIER_NAMES[i] + ".cost", distanceCosts[i]);
+        }
+        checkNotNegative("goods.big.cost", bigGoodsCost);
+        checkNotNegative("goods.little.cost", littleGoodsCost);
+        checkNotNegative("goods.fragile.cost", fragileGoodsCost);
+        for (int i = 0; i < WORKLOAD_TIERS; i++) {
+            checkNotNegative("workload." + WORKLOAD_TIER_NAMES[i] + ".factor", workloadFactors[i]);
+        }
+        checkNotNegative("min.cost", minCost);
+        checkNotNegative("fragile.distance.limit", fragileGoodsDistanceLimit);
+        this.version = version;
+        this.distanceCosts = distanceCosts.clone();
+        this.bigGoodsCost = bigGoodsCost;
+        this.littleGoodsCost = littleGoodsCost;
+        this.fragileGoodsCost = fragileGoodsCost;
+        this.workloadFactors = workloadFactors.clone();
+        this.minCost = minCost;
+        this.fragileGoodsDistanceLimit = fragileGoodsDistanceLimit.doubleValue();
+        this.fragileGoodsRejectionMessage = "Impossible to delivery fragile goods beyond "
+                + fragileGoodsDistanceLimit.stripTrailingZeros().toPlainString() + "km";
+        this.stacklessFragileGoodsRejection = InvalidDeliveryException.stackless(fragileGoodsRejectionMessage,
+                RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT);
+        try {
+            this.minCostInKopecks = minCost.setScale(2, BigDecimal.ROUND_FLOOR).unscaledValue().longValueExact();
+            this.tariffMatrix = compileTariffMatrix();
+            this.minCostCells = compileMinCostCells();
+        } catch (ArithmeticException e) {
+            throw new InvalidTariffException("Tariff cost does not fit into kopecks range", e);
+        }
+        checkTariffMatrix();
+    }
+
+    private static void checkNotNegative(String name, BigDecimal value) throws InvalidTariffException {
+        if (value == null) {
+            throw new InvalidTariffException("Tariff value '" + name + "' is absent");
+        }
+        if (value.signum() < 0) {
+            throw new InvalidTariffException("Tariff value '" + name + "' must not be negative, got " + value);
+        }
+    }
+
+    private static Tariff createDefault() {
+        try {
+            return new Tariff(0,
+                    new BigDecimal[]{BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(200), BigDecimal.valueOf(300)},
+                    BigDecimal.valueOf(200), BigDecimal.valueOf(100), BigDecimal.valueOf(300),
+                    new BigDecimal[]{BigDecimal.valueOf(1.0), BigDecimal.valueOf(1.2), BigDecimal.valueOf(1.4), BigDecimal.valueOf(1.6)},
+                    BigDecimal.valueOf(400), BigDecimal.valueOf(30));
+        } catch (InvalidTariffException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create tariff from properties, see class description for the keys
+     *
+     * @param properties - tariff properties
+     * @return tariff
+     * @throws InvalidTariffException when any value is absent, malformed or out of range
+     */
+    public static Tariff fromProperties(Properties properties) throws InvalidTariffException {
+        String version = properties.getProperty("version");
+        if (version == null) {
+            throw new InvalidTariffException("Tariff value 'version' is absent");
+        }
+        BigDecimal[] distanceCosts = new BigDecimal[DISTANCE_TIERS];
+        for (int i = 0; i < DISTANCE_TIERS; i++) {
+            distanceCosts[i] = getDecimal(properties, "distance." + DISTANCE_TIER_NAMES[i] + ".cost");
+        }
+        BigDecimal[] workloadFactors = new BigDecimal[WORKLOAD_TIERS];
+        for (int i = 0; i < WORKLOAD_TIERS; i++) {
+            workloadFactors[i] = getDecimal(properties, "workload." + WORKLOAD_TIER_NAMES[i] + ".factor");
+        }
+        try {
+            return new Tariff(Long.parseLong(version.trim()), distanceCosts,
+                    getDecimal(properties, "goods.big.cost"), getDecimal(properties, "goods.little.cost"),
+                    getDecimal(properties, "goods.fragile.cost"), workloadFactors,
+                    getDecimal(properties, "min.cost"), getDecimal(properties, "fragile.distance.limit"));
+        } catch (NumberFormatException e) {
+            throw new InvalidTariffException("Tariff value 'version' is not a number: " + version, e);
+        }
+    }
+
+    private static BigDecimal getDecimal(Properties properties, String name) throws InvalidTariffException {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidTariffException("Tariff value '" + name + "' is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Load tariff from properties file, see class description for the keys
+     *
+     * @param file - tariff file
+     * @return tariff
+     * @throws IOException            when file can't be read
+     * @throws InvalidTariffException when any value is absent, malformed or out of range
+     */
+    public static Tariff load(Path file) throws IOException, InvalidTariffException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Get cost according to provided distance to destination
+     *
+     * @param distance - distance to destination (km)
+     * @return cost (rub)
+     */
+    private BigDecimal getCostByDistance(double distance) {
+        distance = distance < 0 ? 0 : distance;
+        return distanceCosts[distance > 30 ? 3 : distance > 10 ? 2 : distance > 2 ? 1 : 0];
+    }
+
+    /**
+     * Get cost according to provided goods dimension
+     *
+     * @param goodsDimension - goods dimension (little/big)
+     * @return cost (rub)
+     */
+    private BigDecimal getCostByGoodsDimension(GoodsDimension goodsDimension) {
+        return goodsDimension == GoodsDimension.BIG ? bigGoodsCost : littleGoodsCost;
+    }
+
+    /**
+     * Get cost according to provided goods fragility
+     *
+     * @param isFragileGoods - flag for fragile goods (true/false)
+     * @return cost (rub)
+     */
+    private BigDecimal getCostByGoodsFragility(boolean isFragileGoods) {
+        return isFragileGoods ? fragileGoodsCost : BigDecimal.ZERO;
+    }
+
+    /**
+     * Get factor according to provided delivery service workload
+     *
+     * @param deliveryServiceWorkload - delivery service workload in percents (0-100)
+     * @return factor (number)
+     */
+    private BigDecimal getDeliveryServiceWorkloadFactor(int deliveryServiceWorkload) {
+        deliveryServiceWorkload = Math.max(deliveryServiceWorkload, 0);
+        deliveryServiceWorkload = Math.min(deliveryServiceWorkload, 100);
+        boolean isMediumLoad = deliveryServiceWorkload >= 40 && deliveryServiceWorkload < 60;
+        boolean isHighLoad = deliveryServiceWorkload >= 60 && deliveryServiceWorkload < 80;
+        boolean isCriticalLoad = deliveryServiceWorkload >= 80 && deliveryServiceWorkload <= 100;
+        return workloadFactors[isCriticalLoad ? 3 : isHighLoad ? 2 : isMediumLoad ? 1 : 0];
+    }
+
+    /**
+     * Calculate delivery cost by applying every pricing rule but the minimal cost to provided data
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (rub)
+     */
+    private BigDecimal getCostBeforeMinCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                            int deliveryServiceWorkload) {
+        return new BigDecimal(0)
+                .add(getCostByDistance(distance))
+                .add(getCostByGoodsDimension(goodsDimension))
+                .add(getCostByGoodsFragility(isFragileGoods))
+                .multiply(getDeliveryServiceWorkloadFactor(deliveryServiceWorkload));
+    }
+
+    /**
+     * Calculate delivery cost by applying every pricing rule to provided data
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (kopecks)
+     */
+    private long getRuleBasedCost(double distance, GoodsDimension goodsDimension, boolean isFragileGoods,
+                                  int deliveryServiceWorkload) {
+        BigDecimal resultCost = getCostBeforeMinCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        return resultCost.max(minCost).setScale(2, BigDecimal.ROUND_FLOOR).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Get distance tier: up to 2km, up to 10km, up to 30km and beyond, negative distance is treated as zero
+     *
+     * @param distance - distance to destination (km)
+     * @return tier (0-3)
+     */
+    public static int getDistanceTier(double distance) {
+        return distance > 30 ? 3 : distance > 10 ? 2 : distance > 2 ? 1 : 0;
+    }
+
+    /**
+     * Get delivery service workload tier: below 40%, below 60%, below 80% and above,
+     * workload out of 0-100 range is treated as the nearest bound
+     *
+     * @param deliveryServiceWorkload - delivery service workload in percents (0-100)
+     * @return tier (0-3)
+     */
+    public static int getWorkloadTier(int deliveryServiceWorkload) {
+        return deliveryServiceWorkload >= 80 ? 3 : deliveryServiceWorkload >= 60 ? 2
+                : deliveryServiceWorkload >= 40 ? 1 : 0;
+    }
+
+    private static int getTariffIndex(int distanceTier, int goodsDimension, boolean isFragileGoods, int workloadTier) {
+        return (((distanceTier * GOODS_DIMENSIONS.length + goodsDimension) << 1) + (isFragileGoods ? 1 : 0))
+                * WORKLOAD_TIERS + workloadTier;
+    }
+
+    private long[] compileTariffMatrix() {
+        long[] matrix = new long[DISTANCE_TIERS * GOODS_DIMENSIONS.length * 2 * WORKLOAD_TIERS];
+        for (int distanceTier = 0; distanceTier < DISTANCE_TIERS; distanceTier++) {
+            for (GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    for (int workloadTier = 0; workloadTier < WORKLOAD_TIERS; workloadTier++) {
+                        matrix[getTariffIndex(distanceTier, goodsDimension.ordinal(), isFragileGoods, workloadTier)]
+                                = getRuleBasedCost(DISTANCE_TIER_SAMPLES[distanceTier][0], goodsDimension,
+                                isFragileGoods, WORKLOAD_TIER_SAMPLES[workloadTier][0]);
+                    }
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private boolean[] compileMinCostCells() {
+        boolean[] cells = new boolean[tariffMatrix.length];
+        for (int distanceTier = 0; distanceTier < DISTANCE_TIERS; distanceTier++) {
+            for (GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    for (int workloadTier = 0; workloadTier < WORKLOAD_TIERS; workloadTier++) {
+                        cells[getTariffIndex(distanceTier, goodsDimension.ordinal(), isFragileGoods, workloadTier)]
+                                = getCostBeforeMinCost(DISTANCE_TIER_SAMPLES[distanceTier][0], goodsDimension,
+                                isFragileGoods, WORKLOAD_TIER_SAMPLES[workloadTier][0]).compareTo(minCost) < 0;
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Check that the tariff matrix agrees with the pricing rules on every sample of every tier
+     *
+     * @throws InvalidTariffException when a matrix cell differs from the rule based cost
+     */
+    private void checkTariffMatrix() throws InvalidTariffException {
+        for (double[] distances : DISTANCE_TIER_SAMPLES) {
+            for (double distance : distances) {
+                for (GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                    for (boolean isFragileGoods : new boolean[]{false, true}) {
+                        for (int[] deliveryServiceWorkloads : WORKLOAD_TIER_SAMPLES) {
+                            for (int deliveryServiceWorkload : deliveryServiceWorkloads) {
+                                long expectedCost = getRuleBasedCost(distance, goodsDimension, isFragileGoods,
+                                        deliveryServiceWorkload);
+                                long actualCost = getCost(distance, goodsDimension.ordinal(), isFragileGoods,
+                                        deliveryServiceWorkload);
+                                if (expectedCost != actualCost) {
+                                    throw new InvalidTariffException(String.format(
+                                            "Tariff matrix gives %d instead of %d kopecks for %s goods (fragile = '%s') on %skm with service workload %d%%",
+                                            actualCost, expectedCost, goodsDimension, isFragileGoods, distance,
+                                            deliveryServiceWorkload));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get delivery cost for provided tiers, fragile goods beyond the limit are not checked
+     *
+     * @param distanceTier      - distance tier, see {@link #getDistanceTier(double)}
+     * @param goodsDimension    - goods dimension code ({@link GoodsDimension#ordinal()})
+     * @param isFragileGoods    - flag for fragile goods (true/false)
+     * @param workloadTier      - delivery service workload tier, see {@link #getWorkloadTier(int)}
+     * @return cost (kopecks)
+     */
+    public long getCostByTiers(int distanceTier, int goodsDimension, boolean isFragileGoods, int workloadTier) {
+        return tariffMatrix[getTariffIndex(distanceTier, goodsDimension, isFragileGoods, workloadTier)];
+    }
+
+    /**
+     * Get delivery cost for provided data, fragile goods beyond the limit are not checked
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension code ({@link GoodsDimension#ordinal()})
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (kopecks)
+     */
+    public long getCost(double distance, int goodsDimension, boolean isFragileGoods, int deliveryServiceWorkload) {
+        return tariffMatrix[getTariffIndex(getDistanceTier(distance), goodsDimension, isFragileGoods,
+                getWorkloadTier(deliveryServiceWorkload))];
+    }
+
+    /**
+     * Check whether the cost for provided data is raised to the minimal cost, a cost that is equal
+     * to the minimal one before the rule is applied is not raised
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension code ({@link GoodsDimension#ordinal()})
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return true if the cost is raised to the minimal cost
+     */
+    public boolean isRaisedToMinCost(double distance, int goodsDimension, boolean isFragileGoods,
+                                     int deliveryServiceWorkload) {
+        return minCostCells[getTariffIndex(getDistanceTier(distance), goodsDimension, isFragileGoods,
+                getWorkloadTier(deliveryServiceWorkload))];
+    }
+
+    /**
+     * @param distance - distance to destination (km)
+     * @return true if fragile goods can't be delivered to provided distance
+     */
+    public boolean isBeyondFragileGoodsDistanceLimit(double distance) {
+        return distance > fragileGoodsDistanceLimit;
+    }
+
+    /**
+     * @return message of {@link InvalidDeliveryException} for fragile goods beyond the limit
+     */
+    public String getFragileGoodsRejectionMessage() {
+        return fragileGoodsRejectionMessage;
+    }
+
+    /**
+     * @return preallocated exception without stack trace for fragile goods beyond the limit
+     */
+    public InvalidDeliveryException getStacklessFragileGoodsRejection() {
+        return stacklessFragileGoodsRejection;
+    }
+
+    /**
+     * @return minimal delivery cost (kopecks), costs below it are raised to it
+     */
+    public long getMinCostInKopecks() {
+        return minCostInKopecks;
+    }
+
+    /**
+     * @return tariff version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+}
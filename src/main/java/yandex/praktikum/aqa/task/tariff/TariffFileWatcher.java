@@ -0,0 +1,102 @@
+package yandex.praktikum.aqa.task.tariff;
+
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a tariff file and publishes every valid newer version of it to the registry.
+ * An invalid or incomplete file is ignored and the current tariff stays in effect.
+ */
+public class TariffFileWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final TariffRegistry registry;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private volatile Exception lastReloadError;
+
+    /**
+     * Load the tariff file and start watching it
+     *
+     * @param file      - tariff file, see {@link Tariff} for the format
+     * @param registry  - registry to publish tariffs to
+     * @throws IOException            when file can't be read or watched
+     * @throws InvalidTariffException when file is not a valid tariff
+     */
+    public TariffFileWatcher(Path file, TariffRegistry registry) throws IOException, InvalidTariffException {
+        this.file = file.toAbsolutePath();
+        this.registry = registry;
+        reload();
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watcher = new Thread(this::watch, "tariff-file-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Load the tariff file and publish it when its version is newer than the current tariff
+     *
+     * @return true if the tariff was published
+     * @throws IOException            when file can't be read
+     * @throws InvalidTariffException when file is not a valid tariff or its version is older than the current one
+     */
+    public boolean reload() throws IOException, InvalidTariffException {
+        Tariff tariff = Tariff.load(file);
+        if (tariff.getVersion() == registry.getTariff().getVersion()) {
+            return false;
+        }
+        registry.publish(tariff);
+        return true;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean isTariffChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    isTariffChanged |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (isTariffChanged) {
+                    try {
+                        reload();
+                        lastReloadError = null;
+                    } catch (IOException | InvalidTariffException e) {
+                        lastReloadError = e;
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher is closed
+        }
+    }
+
+    /**
+     * @return error of the last reload, null if it was successful
+     */
+    public Exception getLastReloadError() {
+        return lastReloadError;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            watcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package yandex.praktikum.aqa.task.tariff;
+
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current tariff. Readers never lock and always get one consistent tariff snapshot,
+ * a new tariff replaces the current one atomically.
+ */
+public class TariffRegistry {
+
+    private final AtomicReference<Tariff> currentTariff;
+
+    public TariffRegistry(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff is absent");
+        }
+        this.currentTariff = new AtomicReference<>(tariff);
+    }
+
+    /**
+     * @return current tariff
+     */
+    public Tariff getTariff() {
+        return currentTariff.get();
+    }
+
+    /**
+     * Replace current tariff with a newer one
+     *
+     * @param tariff - new tariff
+     * @throws InvalidTariffException when tariff version is not greater than the current one
+     */
+    public void publish(Tariff tariff) throws InvalidTariffException {
+        while (true) {
+            Tariff current = currentTariff.get();
+            if (tariff.getVersion() <= current.getVersion()) {
+                throw new InvalidTariffException("Tariff version " + tariff.getVersion()
+                        + " must be greater than current version " + current.getVersion());
+            }
+            if (currentTariff.compareAndSet(current, tariff)) {
+                return;
+            }
+        }
+    }
+
+}
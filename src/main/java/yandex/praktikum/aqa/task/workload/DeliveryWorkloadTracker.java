@@ -0,0 +1,63 @@
+package yandex.praktikum.aqa.task.workload;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts in-flight deliveries against fleet capacity. Deliveries are counted with striped counters,
+ * so threads starting and finishing deliveries don't contend with each other or with workload readers.
+ */
+public class DeliveryWorkloadTracker implements WorkloadSource {
+
+    private final LongAdder inFlightDeliveries = new LongAdder();
+    private volatile long capacity;
+
+    /**
+     * @param capacity - number of deliveries the fleet handles at full workload
+     */
+    public DeliveryWorkloadTracker(long capacity) {
+        setCapacity(capacity);
+    }
+
+    /**
+     * @param capacity - number of deliveries the fleet handles at full workload
+     */
+    public void setCapacity(long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void deliveryStarted() {
+        inFlightDeliveries.increment();
+    }
+
+    public void deliveryFinished() {
+        inFlightDeliveries.decrement();
+    }
+
+    /**
+     * @return number of started and not yet finished deliveries
+     */
+    public long getInFlightDeliveries() {
+        return inFlightDeliveries.sum();
+    }
+
+    /**
+     * @return in-flight deliveries in percents of capacity, limited to 0-100
+     */
+    @Override
+    public int getDeliveryServiceWorkload() {
+        long inFlight = inFlightDeliveries.sum();
+        if (inFlight <= 0) {
+            return 0;
+        }
+        long currentCapacity = capacity;
+        return inFlight >= currentCapacity ? 100 : (int) (inFlight * 100 / currentCapacity);
+    }
+
+}
@@ -0,0 +1,79 @@
+package yandex.praktikum.aqa.task.workload;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average of another workload source over a sliding time window. The source is sampled on a background thread,
+ * readers get the last average without any computation, so short spikes around tier boundaries
+ * don't flip the workload factor back and forth.
+ */
+public class SmoothedWorkloadSource implements WorkloadSource, AutoCloseable {
+
+    private final WorkloadSource source;
+    private final int[] samples;
+    private final ScheduledExecutorService sampler;
+    private int nextSample;
+    private long samplesSum;
+    private volatile int deliveryServiceWorkload;
+
+    /**
+     * @param source            - workload source to smooth
+     * @param window            - duration of the sliding window
+     * @param samplingInterval  - interval between samples, window must hold a whole number of them
+     * @param unit              - time unit of window and interval
+     */
+    public SmoothedWorkloadSource(WorkloadSource source, long window, long samplingInterval, TimeUnit unit) {
+        if (source == null) {
+            throw new IllegalArgumentException("Workload source is absent");
+        }
+        if (samplingInterval < 1 || window < samplingInterval || window % samplingInterval != 0) {
+            throw new IllegalArgumentException("Window " + window + " must be a positive multiple of sampling interval "
+                    + samplingInterval);
+        }
+        if (window / samplingInterval > 1 << 20) {
+            throw new IllegalArgumentException("Window must hold at most " + (1 << 20) + " samples, got "
+                    + window / samplingInterval);
+        }
+        this.source = source;
+        this.samples = new int[(int) (window / samplingInterval)];
+        int initialWorkload = source.getDeliveryServiceWorkload();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = initialWorkload;
+        }
+        this.samplesSum = (long) initialWorkload * samples.length;
+        this.deliveryServiceWorkload = initialWorkload;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workload-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sampler.scheduleAtFixedRate(this::sample, samplingInterval, samplingInterval, unit);
+    }
+
+    /**
+     * Replace the oldest sample with the current workload of the source
+     */
+    synchronized void sample() {
+        int workload = source.getDeliveryServiceWorkload();
+        samplesSum += workload - samples[nextSample];
+        samples[nextSample] = workload;
+        nextSample = nextSample + 1 == samples.length ? 0 : nextSample + 1;
+        deliveryServiceWorkload = (int) ((samplesSum + samples.length / 2) / samples.length);
+    }
+
+    /**
+     * @return average workload over the window in percents (0-100), rounded half up
+     */
+    @Override
+    public int getDeliveryServiceWorkload() {
+        return deliveryServiceWorkload;
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+}
@@ -0,0 +1,15 @@
+package yandex.praktikum.aqa.task.workload;
+
+/**
+ * Source of the current delivery service workload
+ */
+public interface WorkloadSource {
+
+    /**
+     * Called on every quote, must be cheap and must not block
+     *
+     * @return delivery service workload in percents (0-100)
+     */
+    int getDeliveryServiceWorkload();
+
+}
@@ -0,0 +1,73 @@
+package yandex.praktikum.aqa.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of columnar batch pricing in rows per second depending on fork/join pool parallelism
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeliveryManagerBatchBenchmark {
+
+    private static final int BATCH_SIZE = 1 << 20;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private final double[] distances = new double[BATCH_SIZE];
+    private final byte[] goodsDimensions = new byte[BATCH_SIZE];
+    private final boolean[] fragileGoods = new boolean[BATCH_SIZE];
+    private final int[] deliveryServiceWorkloads = new int[BATCH_SIZE];
+    private final long[] costs = new long[BATCH_SIZE];
+    private final byte[] statuses = new byte[BATCH_SIZE];
+
+    private DeliveryManager deliveryManager;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            distances[i] = random.nextDouble() * 40;
+            goodsDimensions[i] = (byte) random.nextInt(DeliveryManager.GoodsDimension.values().length);
+            fragileGoods[i] = random.nextBoolean();
+            deliveryServiceWorkloads[i] = random.nextInt(101);
+        }
+        deliveryManager = new DeliveryManager();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] getCostsInKopecks() {
+        deliveryManager.getCostsInKopecks(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                costs, statuses, pool);
+        return costs;
+    }
+
+}
@@ -0,0 +1,122 @@
+package yandex.praktikum.aqa.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link DeliveryManager#getCost} for every distance and delivery service workload tier,
+ * on a single thread and on all available threads sharing one manager.
+ * Run with {@code mvn test -Pbenchmark}, allocation rate is reported by the gc profiler.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeliveryManagerBenchmark {
+
+    public enum DistanceTier {
+        SHORT(0.5, 1.2, 2), MEDIUM(2.01, 6.5, 10), LONG(10.01, 25, 30), LONGEST(30.01, 82.7, 5000);
+
+        private final double[] distances;
+
+        DistanceTier(double... distances) {
+            this.distances = distances;
+        }
+    }
+
+    public enum WorkloadTier {
+        LOW(0, 25, 39), MEDIUM(40, 45, 59), HIGH(60, 65, 79), HIGHEST(80, 85, 100);
+
+        private final int[] workloads;
+
+        WorkloadTier(int... workloads) {
+            this.workloads = workloads;
+        }
+    }
+
+    @Param
+    public DistanceTier distanceTier;
+
+    @Param
+    public WorkloadTier workloadTier;
+
+    private static final int MASK = 15;
+
+    private final double[] distances = new double[MASK + 1];
+    private final int[] workloads = new int[MASK + 1];
+    private final DeliveryManager.GoodsDimension[] goodsDimensions = new DeliveryManager.GoodsDimension[MASK + 1];
+    private final boolean[] fragility = new boolean[MASK + 1];
+
+    private DeliveryManager deliveryManager;
+
+    /**
+     * Thread-local cursor over the prepared inputs, so that threads do not share a mutable counter
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next() {
+            return position++ & MASK;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        deliveryManager = new DeliveryManager();
+        for (int i = 0; i <= MASK; i++) {
+            distances[i] = distanceTier.distances[i % distanceTier.distances.length];
+            workloads[i] = workloadTier.workloads[i % workloadTier.workloads.length];
+            goodsDimensions[i] = (i & 1) == 0 ? DeliveryManager.GoodsDimension.BIG : DeliveryManager.GoodsDimension.LITTLE;
+            // fragile goods beyond 30km are covered by DeliveryManagerRejectionBenchmark
+            fragility[i] = distanceTier != DistanceTier.LONGEST && (i & 2) == 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public BigDecimal getCostSingleThreaded(Cursor cursor) throws InvalidDeliveryException {
+        return getCost(cursor.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public BigDecimal getCostMultiThreaded(Cursor cursor) throws InvalidDeliveryException {
+        return getCost(cursor.next());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long getCostInKopecksSingleThreaded(Cursor cursor) throws InvalidDeliveryException {
+        int i = cursor.next();
+        return deliveryManager.getCostInKopecks(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long getCostInKopecksMultiThreaded(Cursor cursor) throws InvalidDeliveryException {
+        int i = cursor.next();
+        return deliveryManager.getCostInKopecks(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    private BigDecimal getCost(int i) throws InvalidDeliveryException {
+        return deliveryManager.getCost(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+}
@@ -0,0 +1,136 @@
+package yandex.praktikum.aqa.task;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.utils.DeliveryCostModel;
+import yandex.praktikum.aqa.task.utils.Utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Differential tests of delivery cost against {@link DeliveryCostModel}. Random cases are generated in chunks,
+ * every chunk has its own generator split from {@link Utils#SEED}, so chunks are checked in parallel and a failure
+ * is reproduced with the same -Ddelivery.seed. The number of cases is set with -Ddelivery.cases.
+ */
+public class DeliveryManagerPropertyTest {
+
+    private static final int CASES = Integer.getInteger("delivery.cases", 1_000_000);
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private static final double[] DISTANCE_BOUNDS = {0, 2, 10, 30};
+    private static final DeliveryManager.GoodsDimension[] GOODS_DIMENSIONS = {
+            null, DeliveryManager.GoodsDimension.BIG, DeliveryManager.GoodsDimension.LITTLE};
+
+    private final DeliveryManager deliveryManager = new DeliveryManager();
+
+    /**
+     * @return error message, null when delivery manager agrees with the model
+     */
+    private String check(double distance, DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                         int deliveryServiceWorkload) {
+        BigDecimal expectedCost = DeliveryCostModel.getCost(distance, goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+        BigDecimal cost;
+        long costInKopecks;
+        try {
+            cost = deliveryManager.getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+            costInKopecks = deliveryManager.getCostInKopecks(distance, goodsDimension, isFragileGoods,
+                    deliveryServiceWorkload);
+        } catch (InvalidDeliveryException e) {
+            cost = null;
+            costInKopecks = -1;
+        }
+        if (Objects.equals(expectedCost, cost)
+                && (expectedCost == null || expectedCost.movePointRight(2).longValueExact() == costInKopecks)) {
+            return null;
+        }
+        return "getCost(" + distance + ", " + goodsDimension + ", " + isFragileGoods + ", " + deliveryServiceWorkload
+                + "): expected " + (expectedCost == null ? "rejection" : expectedCost)
+                + ", got " + (cost == null ? "rejection" : cost + " (" + costInKopecks + " kopecks)");
+    }
+
+    private static double generateDistance(SplittableRandom random) {
+        if (random.nextInt(4) == 0) {
+            double bound = DISTANCE_BOUNDS[random.nextInt(DISTANCE_BOUNDS.length)];
+            switch (random.nextInt(5)) {
+                case 0:
+                    return Math.nextDown(bound);
+                case 1:
+                    return Math.nextUp(bound);
+                case 2:
+                    return bound - 0.01;
+                case 3:
+                    return bound + 0.01;
+                default:
+                    return bound;
+            }
+        }
+        double distance = random.nextDouble(-10, 5000);
+        return random.nextBoolean() ? distance : Math.round(distance * 100) / 100.0;
+    }
+
+    private String checkChunk(SplittableRandom random, int chunk, int cases) {
+        for (int i = 0; i < cases; i++) {
+            String error = check(generateDistance(random),
+                    GOODS_DIMENSIONS[random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(2)],
+                    random.nextBoolean(), random.nextInt(-20, 121));
+            if (error != null) {
+                return "seed " + Utils.SEED + ", chunk " + chunk + ", case " + i + ": " + error;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Delivery cost matches the model for random cases")
+    void randomCasesTest() {
+        SplittableRandom random = new SplittableRandom(Utils.SEED);
+        int chunks = (CASES + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<SplittableRandom> randoms = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            randoms.add(random.split());
+        }
+        Optional<String> error = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> checkChunk(randoms.get(chunk), chunk,
+                        Math.min(CHUNK_SIZE, CASES - chunk * CHUNK_SIZE)))
+                .filter(Objects::nonNull)
+                .findFirst();
+        Assertions.assertFalse(error.isPresent(), () -> error.get());
+    }
+
+    @Test
+    @DisplayName("Delivery cost matches the model on every tier boundary")
+    void tierBoundariesTest() {
+        List<Double> distances = new ArrayList<>();
+        for (double bound : DISTANCE_BOUNDS) {
+            distances.add(bound - 0.01);
+            distances.add(Math.nextDown(bound));
+            distances.add(bound);
+            distances.add(Math.nextUp(bound));
+            distances.add(bound + 0.01);
+        }
+        List<String> errors = new ArrayList<>();
+        for (double distance : distances) {
+            for (DeliveryManager.GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    for (int deliveryServiceWorkload = -10; deliveryServiceWorkload <= 110; deliveryServiceWorkload++) {
+                        String error = check(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+                        if (error != null) {
+                            errors.add(error);
+                        }
+                    }
+                }
+            }
+        }
+        Assertions.assertTrue(errors.isEmpty(), () -> String.join("\n", errors));
+    }
+
+}
@@ -0,0 +1,86 @@
+package yandex.praktikum.aqa.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link DeliveryManager#getCost} for inputs rejected with {@link InvalidDeliveryException}
+ * with and without stack trace, and of {@link DeliveryManager#quote} for the same inputs,
+ * on a single thread and on all available threads sharing one manager.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeliveryManagerRejectionBenchmark {
+
+    public enum Rejection {
+        FRAGILE_GOODS_BEYOND_30KM, GOODS_DIMENSION_ABSENT
+    }
+
+    public enum Api {
+        EXCEPTION, STACKLESS_EXCEPTION, QUOTE
+    }
+
+    @Param
+    public Rejection rejection;
+
+    @Param
+    public Api api;
+
+    private double distance;
+    private DeliveryManager.GoodsDimension goodsDimension;
+    private boolean isFragileGoods;
+    private int deliveryServiceWorkload;
+
+    private DeliveryManager deliveryManager;
+
+    @Setup
+    public void setUp() {
+        deliveryManager = new DeliveryManager();
+        deliveryManager.setStacklessRejections(api == Api.STACKLESS_EXCEPTION);
+        distance = rejection == Rejection.FRAGILE_GOODS_BEYOND_30KM ? 82.7 : 25;
+        goodsDimension = rejection == Rejection.FRAGILE_GOODS_BEYOND_30KM ? DeliveryManager.GoodsDimension.BIG : null;
+        isFragileGoods = true;
+        deliveryServiceWorkload = 65;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object getCostSingleThreaded() {
+        return getCost();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object getCostMultiThreaded() {
+        return getCost();
+    }
+
+    private Object getCost() {
+        if (api == Api.QUOTE) {
+            return deliveryManager.quote(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        }
+        try {
+            return deliveryManager.getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        } catch (InvalidDeliveryException e) {
+            return e;
+        }
+    }
+
+}
@@ -6,81 +6,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.utils.DeliveryCostModel;
+import yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.DSWType;
+import yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.DistanceType;
 import yandex.praktikum.aqa.task.utils.Utils;
 
 import java.math.BigDecimal;
 import java.util.stream.Stream;
 
-import static java.math.BigDecimal.ROUND_FLOOR;
+import static yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.generateDeliveryServiceWorkload;
+import static yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.generateDistance;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 public class DeliveryManagerTest {
 
-    private enum DistanceType {
-        SHORT, MEDIUM, LONG, LONGEST;
-    }
-
-    private enum DSWType {
-        LOW, MEDIUM, HIGH, HIGHEST;
-    }
-
-    private static final double GREATEST_DISTANCE = 5000;
-
-    private static double generateDistance(DistanceType distanceType) {
-        switch (distanceType) {
-            case SHORT:
-                return Utils.generateNumberInRange(0, 2);
-            case MEDIUM:
-                return Utils.generateNumberInRange(2, 10);
-            case LONG:
-                return Utils.generateNumberInRange(10, 30);
-            case LONGEST:
-                return Utils.generateNumberInRange(30, GREATEST_DISTANCE);
-        }
-        return 0;
-    }
-
-    private static int generateDeliveryServiceWorkload(DSWType deliveryServiceWorkloadType) {
-        switch (deliveryServiceWorkloadType) {
-            case LOW:
-                return (int)Utils.generateNumberInRange(0, 40);
-            case MEDIUM:
-                return (int)Utils.generateNumberInRange(40, 60);
-            case HIGH:
-                return (int)Utils.generateNumberInRange(60, 80);
-            case HIGHEST:
-                return (int)Utils.generateNumberInRange(80, 100);
-        }
-        return 0;
-    }
-
-    private BigDecimal getCostByDistance(double distance) {
-        distance = distance < 0 ? 0 : distance;
-        boolean isShortDistance = distance >= 0 && distance < 2;
-        boolean isMediumDistance = distance > 2 && distance < 10;
-        boolean isLongDistance = distance > 10 && distance < 30;
-        boolean isLongestDistance = distance > 30;
-        double cost = isLongestDistance ? 300 : isLongDistance ? 200 : isMediumDistance ? 100 : isShortDistance ? 50 : 0;
-        return BigDecimal.valueOf(cost);
-    }
-
-    private BigDecimal getCostByGoodsDimension(DeliveryManager.GoodsDimension goodsDimension) {
-        double cost = goodsDimension == DeliveryManager.GoodsDimension.BIG ? 200 : goodsDimension == DeliveryManager.GoodsDimension.LITTLE ? 100 : 0;
-        return BigDecimal.valueOf(cost);
-    }
-
-    private BigDecimal getCostByFragileGoods(boolean isFragileGoods) {
-        double cost = isFragileGoods ? 300 : 0;
-        return BigDecimal.valueOf(cost);
-    }
-
-    private double getDeliveryServiceWorkloadFactor(int deliveryServiceWorkload) {
-        boolean isMediumWorkload = deliveryServiceWorkload >= 40 && deliveryServiceWorkload < 60;
-        boolean isHighWorkload = deliveryServiceWorkload >= 60 && deliveryServiceWorkload < 80;
-        boolean isHighestWorkload = deliveryServiceWorkload >= 80 && deliveryServiceWorkload < 100;
-        return isHighestWorkload ? 1.6 : isHighWorkload ? 1.4 : isMediumWorkload ? 1.2 : 1.0;
-    }
-
     private static Stream<Arguments> deliveryGeneratedTestData() {
         return Stream.of(
                 // ------ Distance,                             G.dimension,            G.frg.,  Delivery service workload
@@ -172,22 +111,19 @@ public class DeliveryManagerTest {
     @MethodSource("deliveryGeneratedTestData")
     void deliveryCostTest(double distance, DeliveryManager.GoodsDimension goodsDimension,
                           boolean isFragileGoods, int deliveryServiceWorkload) throws InvalidDeliveryException {
-        BigDecimal expectedCost = new BigDecimal(0)
-                .add(getCostByDistance(distance))
-                .add(getCostByGoodsDimension(goodsDimension))
-                .add(getCostByFragileGoods(isFragileGoods))
-                .multiply(BigDecimal.valueOf(getDeliveryServiceWorkloadFactor(deliveryServiceWorkload)));
-        expectedCost = expectedCost.max(BigDecimal.valueOf(400));
+        BigDecimal expectedCost = DeliveryCostModel.getCost(distance, goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+        String message = "seed " + Utils.SEED;
 
-        if (distance > 30 && isFragileGoods) {
+        if (expectedCost == null) {
             Assertions.assertThrows(InvalidDeliveryException.class, () -> {
                 new DeliveryManager().getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
-            });
+            }, message);
         } else {
             BigDecimal deliveryCost = new DeliveryManager()
                     .getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
-            Assertions.assertEquals(expectedCost.setScale(2, ROUND_FLOOR), deliveryCost);
+            Assertions.assertEquals(expectedCost, deliveryCost, message);
         }
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -6,13 +6,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
 
 import java.math.BigDecimal;
+import java.util.Random;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 public class DeliveryManagerUnitTest {
@@ -136,4 +143,152 @@ public class DeliveryManagerUnitTest {
         assertEquals(expectedCost, actualCost);
     }
 
-}
\ No newline at end of file
+    private static Stream<Arguments> costInKopecksTestData() {
+        Stream.Builder<Arguments> builder = Stream.builder();
+        for (double distance : new double[]{-52.76, 0, 1.2, 2, 2.01, 6.5, 10, 10.01, 25, 30, 30.01, 82.7}) {
+            for (DeliveryManager.GoodsDimension goodsDimension : DeliveryManager.GoodsDimension.values()) {
+                for (boolean isFragileGoods : new boolean[]{false, true}) {
+                    for (int deliveryServiceWorkload : new int[]{-250, 0, 39, 40, 59, 60, 79, 80, 100, 1530}) {
+                        if (!(distance > 30 && isFragileGoods)) {
+                            builder.add(arguments(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload));
+                        }
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "costInKopecksTestData")
+    @DisplayName("Delivery cost in kopecks matches delivery cost in rubles")
+    void deliveryCostInKopecksTest(double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                   boolean isFragileGoods, int deliveryServiceWorkload) throws InvalidDeliveryException {
+        BigDecimal expectedCost = deliveryManager
+                .getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        long actualCost = deliveryManager
+                .getCostInKopecks(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        assertEquals(expectedCost, BigDecimal.valueOf(actualCost, 2));
+    }
+
+    @Test
+    @DisplayName("Delivery cost in kopecks for invalid delivery")
+    void deliveryCostInKopecksNegativeTest() {
+        InvalidDeliveryException invalidDeliveryException = assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCostInKopecks(82.7, DeliveryManager.GoodsDimension.BIG, true, 90);
+        });
+        assertEquals("Impossible to delivery fragile goods beyond 30km",
+                invalidDeliveryException.getMessage());
+        invalidDeliveryException = assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCostInKopecks(25, null, true, 90);
+        });
+        assertEquals("Goods dimension type is absent, please provide correct value",
+                invalidDeliveryException.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 50_000})
+    @DisplayName("Batch delivery cost matches single delivery cost")
+    void batchDeliveryCostTest(int size) {
+        Random random = new Random(size);
+        double[] distances = new double[size];
+        byte[] goodsDimensions = new byte[size];
+        boolean[] fragileGoods = new boolean[size];
+        int[] deliveryServiceWorkloads = new int[size];
+        for (int i = 0; i < size; i++) {
+            distances[i] = Math.round((random.nextDouble() * 50 - 5) * 100) / 100.0;
+            goodsDimensions[i] = (byte) (random.nextInt(3) - 1);
+            fragileGoods[i] = random.nextBoolean();
+            deliveryServiceWorkloads[i] = random.nextInt(120) - 10;
+        }
+        long[] costs = new long[size];
+        BigDecimal[] decimalCosts = new BigDecimal[size];
+        byte[] statuses = new byte[size];
+        byte[] decimalStatuses = new byte[size];
+        deliveryManager.getCostsInKopecks(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                costs, statuses);
+        deliveryManager.getCosts(distances, goodsDimensions, fragileGoods, deliveryServiceWorkloads,
+                decimalCosts, decimalStatuses);
+        assertArrayEquals(statuses, decimalStatuses);
+        for (int i = 0; i < size; i++) {
+            DeliveryManager.GoodsDimension goodsDimension = goodsDimensions[i] == DeliveryManager.NO_GOODS_DIMENSION
+                    ? null : DeliveryManager.GoodsDimension.values()[goodsDimensions[i]];
+            try {
+                BigDecimal expectedCost = deliveryManager
+                        .getCost(distances[i], goodsDimension, fragileGoods[i], deliveryServiceWorkloads[i]);
+                assertEquals(DeliveryManager.STATUS_OK, statuses[i]);
+                assertEquals(expectedCost, BigDecimal.valueOf(costs[i], 2));
+                assertEquals(expectedCost, decimalCosts[i]);
+            } catch (InvalidDeliveryException e) {
+                assertEquals(distances[i] > 30 && fragileGoods[i]
+                        ? DeliveryManager.STATUS_FRAGILE_GOODS_BEYOND_LIMIT
+                        : DeliveryManager.STATUS_GOODS_DIMENSION_ABSENT, statuses[i]);
+                assertEquals(0, costs[i]);
+                assertNull(decimalCosts[i]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Batch delivery cost for columns of different length")
+    void batchDeliveryCostNegativeTest() {
+        assertThrows(IllegalArgumentException.class, () -> deliveryManager.getCostsInKopecks(new double[2],
+                new byte[2], new boolean[2], new int[1], new long[2], new byte[2]));
+    }
+
+    @Test
+    @DisplayName("Delivery quote for valid and invalid delivery")
+    void deliveryQuoteTest() throws InvalidDeliveryException {
+        DeliveryQuote deliveryQuote = deliveryManager.quote(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+        assertTrue(deliveryQuote.isAccepted());
+        assertNull(deliveryQuote.getRejectionReason());
+        assertEquals(deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true, 65), deliveryQuote.getCost());
+        assertEquals(84000, deliveryQuote.getCostInKopecks());
+        deliveryQuote = deliveryManager.quote(82.7, DeliveryManager.GoodsDimension.BIG, true, 90);
+        assertFalse(deliveryQuote.isAccepted());
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, deliveryQuote.getRejectionReason());
+        assertNull(deliveryQuote.getCost());
+        deliveryQuote = deliveryManager.quote(25, null, true, 90);
+        assertFalse(deliveryQuote.isAccepted());
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, deliveryQuote.getRejectionReason());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Invalid delivery exception carries rejection reason")
+    void rejectionReasonTest(boolean isStacklessRejections) {
+        deliveryManager.setStacklessRejections(isStacklessRejections);
+        InvalidDeliveryException fragileGoodsException = assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCost(82.7, DeliveryManager.GoodsDimension.BIG, true, 90);
+        });
+        assertEquals("Impossible to delivery fragile goods beyond 30km", fragileGoodsException.getMessage());
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, fragileGoodsException.getReason());
+        InvalidDeliveryException goodsDimensionException = assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCost(25, null, true, 90);
+        });
+        assertEquals("Goods dimension type is absent, please provide correct value",
+                goodsDimensionException.getMessage());
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, goodsDimensionException.getReason());
+        assertEquals(isStacklessRejections, fragileGoodsException.getStackTrace().length == 0);
+        assertEquals(isStacklessRejections, fragileGoodsException == assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCost(82.7, DeliveryManager.GoodsDimension.BIG, true, 90)));
+    }
+
+    @Test
+    @DisplayName("Stackless invalid delivery exception is shared and can't be modified")
+    void stacklessRejectionTest() {
+        deliveryManager.setStacklessRejections(true);
+        InvalidDeliveryException invalidDeliveryException = assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCost(25, null, true, 90);
+        });
+        invalidDeliveryException.addSuppressed(new IllegalStateException());
+        invalidDeliveryException.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("DeliveryManager", "getCost", null, 1)});
+        assertSame(invalidDeliveryException, assertThrows(InvalidDeliveryException.class, () -> {
+            deliveryManager.getCost(25, null, false, 90);
+        }));
+        assertEquals(0, invalidDeliveryException.getSuppressed().length);
+        assertEquals(0, invalidDeliveryException.getStackTrace().length);
+    }
+
+}
@@ -0,0 +1,137 @@
+package yandex.praktikum.aqa.task.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvOrderPricerTest {
+
+    @TempDir
+    Path directory;
+
+    private CsvOrderPricer.Summary price(String text, int windowSize, boolean hasHeader) throws IOException {
+        Path input = directory.resolve("orders.csv");
+        Files.write(input, text.getBytes(StandardCharsets.US_ASCII));
+        return new CsvOrderPricer(new DeliveryManager(), windowSize)
+                .price(input, directory.resolve("priced.csv"), directory.resolve("rejected.csv"), hasHeader);
+    }
+
+    private List<String> read(String fileName) throws IOException {
+        return Files.readAllLines(directory.resolve(fileName), StandardCharsets.US_ASCII);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {40, 64, 1 << 20})
+    @DisplayName("Orders are priced and rejected rows are written with reason")
+    void priceOrdersTest(int windowSize) throws IOException {
+        CsvOrderPricer.Summary summary = price("distance,dimension,fragile,workload\r\n"
+                + "5,BIG,true,65\r\n"
+                + "82.7,little,true,90\n"
+                + "25,,true,90\n"
+                + "\n"
+                + "-52.76,Little,1,90\n"
+                + "far,BIG,true,65\n"
+                + "5,HUGE,true,65\n"
+                + "5,BIG,maybe,65\n"
+                + "5,BIG,true\n"
+                + "5,BIG,true,65,1\n"
+                + "25,BIG,false,85", windowSize, true);
+        assertEquals(3, summary.getPricedRows());
+        assertEquals(7, summary.getRejectedRows());
+        assertEquals(Arrays.asList(
+                "5,BIG,true,65,840.00",
+                "-52.76,Little,1,90,720.00",
+                "25,BIG,false,85,640.00"), read("priced.csv"));
+        assertEquals(Arrays.asList(
+                "3,FRAGILE_GOODS_BEYOND_LIMIT,82.7,little,true,90",
+                "4,GOODS_DIMENSION_ABSENT,25,,true,90",
+                "7,MALFORMED_ROW,far,BIG,true,65",
+                "8,MALFORMED_ROW,5,HUGE,true,65",
+                "9,MALFORMED_ROW,5,BIG,maybe,65",
+                "10,MALFORMED_ROW,5,BIG,true",
+                "11,MALFORMED_ROW,5,BIG,true,65,1"), read("rejected.csv"));
+    }
+
+    @Test
+    @DisplayName("Large file is priced the same as single orders")
+    void priceLargeFileTest() throws IOException, InvalidDeliveryException {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        int rows = 30_000;
+        for (int i = 0; i < rows; i++) {
+            text.append(Math.round((random.nextDouble() * 50 - 5) * 100) / 100.0).append(',')
+                    .append(random.nextInt(10) == 0 ? "" : random.nextBoolean() ? "BIG" : "LITTLE").append(',')
+                    .append(random.nextBoolean()).append(',')
+                    .append(random.nextInt(120) - 10).append('\n');
+        }
+        CsvOrderPricer.Summary summary = price(text.toString(), 4096, false);
+        assertEquals(rows, summary.getPricedRows() + summary.getRejectedRows());
+        DeliveryManager deliveryManager = new DeliveryManager();
+        for (String line : read("priced.csv")) {
+            String[] fields = line.split(",");
+            BigDecimal expectedCost = deliveryManager.getCost(Double.parseDouble(fields[0]),
+                    DeliveryManager.GoodsDimension.valueOf(fields[1]), Boolean.parseBoolean(fields[2]),
+                    Integer.parseInt(fields[3]));
+            assertEquals(expectedCost, new BigDecimal(fields[4]), line);
+        }
+        for (String line : read("rejected.csv")) {
+            String[] fields = line.split(",", -1);
+            String goodsDimension = fields[3];
+            assertThrows(InvalidDeliveryException.class, () -> deliveryManager.getCost(Double.parseDouble(fields[2]),
+                    goodsDimension.isEmpty() ? null : DeliveryManager.GoodsDimension.valueOf(goodsDimension),
+                    Boolean.parseBoolean(fields[4]), Integer.parseInt(fields[5])), line);
+        }
+    }
+
+    @Test
+    @DisplayName("Line longer than mapped window is reported")
+    void lineLongerThanWindowTest() {
+        assertThrows(IOException.class, () -> price("5,BIG,true,65\n5,BIG,true,65\n", 8, false));
+    }
+
+    @Test
+    @DisplayName("Distance is parsed as Double.parseDouble does")
+    void parseDistanceTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            String text = i % 3 == 0 ? Double.toString(random.nextDouble() * 1000)
+                    : i % 3 == 1 ? Long.toString(random.nextLong() % 100_000_000_000L) + "." + random.nextInt(1000)
+                    : BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(8)).toPlainString();
+            ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+            assertEquals(Double.parseDouble(text), CsvOrderPricer.parseDistance(buffer, 0, buffer.limit()), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Distance with fraction longer than 22 digits is priced")
+    void longFractionTest() throws IOException {
+        for (String text : new String[]{"0.000000000000000000000000001", "5.00000000000000000000000000", "12.3456789012345678901234"}) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+            assertEquals(Double.parseDouble(text), CsvOrderPricer.parseDistance(buffer, 0, buffer.limit()), text);
+        }
+        CsvOrderPricer.Summary summary = price("0.000000000000000000000000001,BIG,false,10\n"
+                + "5.00000000000000000000000000,BIG,true,65\n", 64, false);
+        assertEquals(2, summary.getPricedRows());
+        assertEquals(Arrays.asList(
+                "0.000000000000000000000000001,BIG,false,10,400.00",
+                "5.00000000000000000000000000,BIG,true,65,840.00"), read("priced.csv"));
+    }
+
+}
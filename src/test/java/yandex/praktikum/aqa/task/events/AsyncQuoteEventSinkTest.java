@@ -0,0 +1,98 @@
+package yandex.praktikum.aqa.task.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncQuoteEventSinkTest {
+
+    @Test
+    @DisplayName("Quotes calculated by delivery manager are delivered to listener")
+    void quotesAreDeliveredTest() throws InvalidDeliveryException {
+        List<String> quotes = new ArrayList<>();
+        DeliveryManager deliveryManager = new DeliveryManager();
+        try (AsyncQuoteEventSink sink = new AsyncQuoteEventSink(event -> quotes.add(event.getGoodsDimension() + " "
+                + event.isFragileGoods() + " " + event.getDistance() + " " + event.getDeliveryServiceWorkload()
+                + " " + event.getCost() + " " + event.getTariffVersion()))) {
+            deliveryManager.setQuoteEventSink(sink);
+            deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+            deliveryManager.getCostInKopecks(25, DeliveryManager.GoodsDimension.LITTLE, false, 10);
+        }
+        assertEquals(2, quotes.size());
+        assertEquals("BIG true 5.0 65 84000 0", quotes.get(0));
+        assertEquals("LITTLE false 25.0 10 40000 0", quotes.get(1));
+    }
+
+    @Test
+    @DisplayName("Quotes are dropped when ring buffer is full")
+    void quotesAreDroppedWhenFullTest() throws InterruptedException {
+        CountDownLatch listenerStarted = new CountDownLatch(1);
+        CountDownLatch listenerReleased = new CountDownLatch(1);
+        List<Long> costs = new ArrayList<>();
+        AsyncQuoteEventSink sink = new AsyncQuoteEventSink(event -> {
+            costs.add(event.getCost());
+            listenerStarted.countDown();
+            try {
+                listenerReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 4, 1);
+        sink.publish(1, DeliveryManager.GoodsDimension.BIG, false, 0, 0, 0);
+        assertTrue(listenerStarted.await(5, TimeUnit.SECONDS));
+        // the first slot stays occupied while the listener is busy with it
+        for (int i = 1; i <= 10; i++) {
+            sink.publish(1, DeliveryManager.GoodsDimension.BIG, false, 0, i, 0);
+        }
+        listenerReleased.countDown();
+        sink.close();
+        assertEquals(4, sink.getPublishedCount());
+        assertEquals(7, sink.getDroppedCount());
+        assertEquals(4, costs.size());
+        assertEquals(Long.valueOf(3), costs.get(3));
+    }
+
+    @Test
+    @DisplayName("Only sampled quotes are delivered")
+    void quotesAreSampledTest() {
+        int[] delivered = new int[1];
+        AsyncQuoteEventSink sink = new AsyncQuoteEventSink(event -> delivered[0]++, 1 << 16, 10);
+        for (int i = 0; i < 50_000; i++) {
+            sink.publish(1, DeliveryManager.GoodsDimension.BIG, false, 0, i, 0);
+        }
+        sink.close();
+        assertEquals(0, sink.getDroppedCount());
+        assertEquals(sink.getPublishedCount(), delivered[0]);
+        assertTrue(delivered[0] > 4_000 && delivered[0] < 6_000, "Delivered " + delivered[0] + " quotes");
+    }
+
+    @Test
+    @DisplayName("Console listener writes quote as text")
+    void consoleListenerTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QuoteEvent event = new QuoteEvent();
+        event.set(5, DeliveryManager.GoodsDimension.BIG, true, 65, 84000, 3, false);
+        new ConsoleQuoteListener(new PrintStream(out, true)).onQuote(event);
+        assertEquals("Delivery cost for big goods (fragile = 'true') on 5.0km with service workload 65% is 840.00RUB (tariff version 3)",
+                new String(out.toByteArray(), StandardCharsets.UTF_8).trim());
+
+        out.reset();
+        event.set(5, DeliveryManager.GoodsDimension.BIG, true, 65, 100000, 5, true);
+        new ConsoleQuoteListener(new PrintStream(out, true)).onQuote(event);
+        assertEquals("Delivery cost for big goods (fragile = 'true') on 5.0km with service workload 65% is 1000.00RUB (rules version 5)",
+                new String(out.toByteArray(), StandardCharsets.UTF_8).trim());
+    }
+
+}
@@ -0,0 +1,61 @@
+package yandex.praktikum.aqa.task.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of {@link DepotIndex#findNearestDepot} for random destinations depending on the number of depots
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DepotIndexBenchmark {
+
+    private static final int DESTINATIONS = 1 << 12;
+
+    @Param({"100", "1000", "10000"})
+    public int depots;
+
+    private DepotIndex depotIndex;
+    private final double[] latitudes = new double[DESTINATIONS];
+    private final double[] longitudes = new double[DESTINATIONS];
+    private int destination;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(depots);
+        List<Depot> depotList = new ArrayList<>();
+        for (int i = 0; i < depots; i++) {
+            depotList.add(new Depot("depot-" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        depotIndex = new DepotIndex(depotList);
+        for (int i = 0; i < DESTINATIONS; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    public Depot findNearestDepot() {
+        destination = (destination + 1) & (DESTINATIONS - 1);
+        return depotIndex.findNearestDepot(latitudes[destination], longitudes[destination]);
+    }
+
+}
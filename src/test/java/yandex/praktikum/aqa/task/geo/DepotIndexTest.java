@@ -0,0 +1,170 @@
+package yandex.praktikum.aqa.task.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryQuote;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DepotIndexTest {
+
+    private static final Depot MOSCOW = new Depot("moscow", 55.7558, 37.6173);
+    private static final Depot SAINT_PETERSBURG = new Depot("saint-petersburg", 59.9343, 30.3351);
+
+    private static List<Depot> randomDepots(Random random, int size) {
+        List<Depot> depots = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            depots.add(new Depot("depot-" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        return depots;
+    }
+
+    @Test
+    @DisplayName("Great-circle distance between known points")
+    void greatCircleDistanceTest() {
+        assertEquals(634, GreatCircle.getDistance(MOSCOW.getLatitude(), MOSCOW.getLongitude(),
+                SAINT_PETERSBURG.getLatitude(), SAINT_PETERSBURG.getLongitude()), 1);
+        assertEquals(Math.PI * GreatCircle.EARTH_RADIUS, GreatCircle.getDistance(0, 0, 0, 180), 1e-6);
+        assertEquals(0, GreatCircle.getDistance(10, 170, 10, 170), 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 10, 5000})
+    @DisplayName("Nearest depot is the same as found by scanning all depots")
+    void nearestDepotTest(int size) {
+        Random random = new Random(size);
+        List<Depot> depots = randomDepots(random, size);
+        DepotIndex depotIndex = new DepotIndex(depots);
+        assertEquals(size, depotIndex.size());
+        for (int i = 0; i < 2_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            double expectedDistance = Double.POSITIVE_INFINITY;
+            for (Depot depot : depots) {
+                expectedDistance = Math.min(expectedDistance, GreatCircle.getDistance(latitude, longitude,
+                        depot.getLatitude(), depot.getLongitude()));
+            }
+            Depot depot = depotIndex.findNearestDepot(latitude, longitude);
+            assertEquals(expectedDistance, GreatCircle.getDistance(latitude, longitude, depot.getLatitude(),
+                    depot.getLongitude()), 1e-6);
+        }
+    }
+
+    @Test
+    @DisplayName("Depot index for invalid depots and coordinates")
+    void depotIndexNegativeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new DepotIndex(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new Depot("north", 90.5, 0));
+        DepotIndex depotIndex = new DepotIndex(Collections.singletonList(MOSCOW));
+        assertThrows(IllegalArgumentException.class, () -> depotIndex.findNearestDepot(0, Double.NaN));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100})
+    @DisplayName("Delivery cost by coordinates of destination")
+    void geoDeliveryCostTest(int cacheCapacity) throws InvalidDeliveryException {
+        GeoDeliveryManager geoDeliveryManager = new GeoDeliveryManager(new DeliveryManager(),
+                new DepotIndex(Arrays.asList(MOSCOW, SAINT_PETERSBURG)), cacheCapacity);
+        for (int i = 0; i < 2; i++) {
+            // about 5.6km from Moscow depot
+            assertSame(MOSCOW, geoDeliveryManager.findNearestDepot(55.7558, 37.7073));
+            assertEquals(new BigDecimal("600.00"), geoDeliveryManager.getCost(55.7558, 37.7073,
+                    DeliveryManager.GoodsDimension.BIG, true, 0));
+            // about 22km from Saint Petersburg depot
+            assertSame(SAINT_PETERSBURG, geoDeliveryManager.findNearestDepot(60.13, 30.3351));
+            assertEquals(96000, geoDeliveryManager.getCostInKopecks(60.13, 30.3351,
+                    DeliveryManager.GoodsDimension.LITTLE, true, 90));
+            DeliveryQuote deliveryQuote = geoDeliveryManager.quote(58, 34, DeliveryManager.GoodsDimension.BIG, true, 0);
+            assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, deliveryQuote.getRejectionReason());
+        }
+    }
+
+    @Test
+    @DisplayName("Cached nearest depots are evicted on collision")
+    void nearestDepotCacheTest() throws InterruptedException {
+        Random random = new Random(3);
+        List<Depot> depots = randomDepots(random, 1000);
+        DepotIndex depotIndex = new DepotIndex(depots);
+        GeoDeliveryManager geoDeliveryManager = new GeoDeliveryManager(new DeliveryManager(), depotIndex, 16);
+        double[] latitudes = new double[500];
+        double[] longitudes = new double[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+        List<Thread> threads = new ArrayList<>();
+        List<AssertionError> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int destination = i % latitudes.length;
+                    Depot depot = depotIndex.findNearestDepot(latitudes[destination], longitudes[destination]);
+                    if (depot != geoDeliveryManager.findNearestDepot(latitudes[destination], longitudes[destination])) {
+                        errors.add(new AssertionError("Wrong depot for destination " + destination));
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), errors);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 10, 1000})
+    @DisplayName("Cached and uncached nearest depots always agree, also for close points on both sides of a border")
+    void nearestDepotCachePropertyTest(int size) {
+        Random random = new Random(size);
+        List<Depot> depots = size == 2 ? Arrays.asList(MOSCOW, SAINT_PETERSBURG) : randomDepots(random, size);
+        DepotIndex depotIndex = new DepotIndex(depots);
+        GeoDeliveryManager geoDeliveryManager = new GeoDeliveryManager(new DeliveryManager(), depotIndex, 64);
+        int borders = 0;
+        for (int i = 0; i < 2_000; i++) {
+            double fromLatitude = random.nextDouble() * 170 - 85;
+            double fromLongitude = random.nextDouble() * 350 - 175;
+            double toLatitude = fromLatitude + random.nextDouble() * 10 - 5;
+            double toLongitude = fromLongitude + random.nextDouble() * 10 - 5;
+            Depot fromDepot = depotIndex.findNearestDepot(fromLatitude, fromLongitude);
+            if (fromDepot != depotIndex.findNearestDepot(toLatitude, toLongitude)) {
+                // bisect down to points a fraction of a millimeter apart on both sides of the border
+                borders++;
+                for (int j = 0; j < 40; j++) {
+                    double latitude = (fromLatitude + toLatitude) / 2;
+                    double longitude = (fromLongitude + toLongitude) / 2;
+                    if (depotIndex.findNearestDepot(latitude, longitude) == fromDepot) {
+                        fromLatitude = latitude;
+                        fromLongitude = longitude;
+                    } else {
+                        toLatitude = latitude;
+                        toLongitude = longitude;
+                    }
+                }
+            }
+            for (int j = 0; j < 2; j++) {
+                assertSame(depotIndex.findNearestDepot(fromLatitude, fromLongitude),
+                        geoDeliveryManager.findNearestDepot(fromLatitude, fromLongitude));
+                assertSame(depotIndex.findNearestDepot(toLatitude, toLongitude),
+                        geoDeliveryManager.findNearestDepot(toLatitude, toLongitude));
+            }
+        }
+        assertTrue(borders > 20, "Crossed " + borders + " borders");
+    }
+}
@@ -0,0 +1,79 @@
+package yandex.praktikum.aqa.task.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of {@link GeoDeliveryManager#findNearestDepot} shared by all available threads, without the cache
+ * and with the cache for a set of repeated destinations that fits into it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoDeliveryManagerBenchmark {
+
+    private static final int DESTINATIONS = 1 << 10;
+
+    @Param({"1000", "10000"})
+    public int depots;
+
+    @Param({"0", "4096"})
+    public int cacheCapacity;
+
+    private GeoDeliveryManager geoDeliveryManager;
+    private final double[] latitudes = new double[DESTINATIONS];
+    private final double[] longitudes = new double[DESTINATIONS];
+
+    /**
+     * Thread-local cursor over the destinations, so that threads do not share a mutable counter
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next() {
+            return position++ & (DESTINATIONS - 1);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(depots);
+        List<Depot> depotList = new ArrayList<>();
+        for (int i = 0; i < depots; i++) {
+            depotList.add(new Depot("depot-" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        geoDeliveryManager = new GeoDeliveryManager(new DeliveryManager(), new DepotIndex(depotList), cacheCapacity);
+        for (int i = 0; i < DESTINATIONS; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Depot findNearestDepot(Cursor cursor) {
+        int i = cursor.next();
+        return geoDeliveryManager.findNearestDepot(latitudes[i], longitudes[i]);
+    }
+
+}
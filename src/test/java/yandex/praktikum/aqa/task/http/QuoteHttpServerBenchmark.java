@@ -0,0 +1,73 @@
+package yandex.praktikum.aqa.task.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local load test of {@link QuoteHttpServer}: 64 clients send quotes over keep-alive connections,
+ * sample time mode reports throughput together with latency percentiles up to p99.99.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class QuoteHttpServerBenchmark {
+
+    private static final String BATCH = createBatch();
+
+    private static String createBatch() {
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            batch.append(i % 40).append(".5,").append(i % 2 == 0 ? "BIG" : "LITTLE").append(',')
+                    .append(i % 3 == 0).append(',').append(i).append('\n');
+        }
+        return batch.toString();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        private QuoteHttpServer server;
+
+        @Setup
+        public void setUp() throws IOException {
+            QuoteHttpServer.enableTcpNoDelay();
+            server = new QuoteHttpServer(new DeliveryManager(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        }
+
+        @TearDown
+        public void tearDown() {
+            server.close();
+        }
+
+    }
+
+    @Benchmark
+    public String[] quote(Server server) throws IOException {
+        return QuoteHttpServerTest.request(server.server.getPort(), "GET", "/quote?5.5,BIG,true,65", null);
+    }
+
+    @Benchmark
+    public String[] quotes100(Server server) throws IOException {
+        return QuoteHttpServerTest.request(server.server.getPort(), "POST", "/quotes", BATCH);
+    }
+
+}
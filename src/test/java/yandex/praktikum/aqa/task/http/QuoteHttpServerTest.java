@@ -0,0 +1,162 @@
+package yandex.praktikum.aqa.task.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+import yandex.praktikum.aqa.task.rules.PricingRules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuoteHttpServerTest {
+
+    private DeliveryManager deliveryManager;
+    private QuoteHttpServer server;
+
+    @BeforeAll
+    public static void setUpAll() {
+        QuoteHttpServer.enableTcpNoDelay();
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        deliveryManager = new DeliveryManager();
+        server = new QuoteHttpServer(deliveryManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    static String[] request(int port, String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (InputStream stream = input) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) >= 0) {
+                response.write(buffer, 0, read);
+            }
+        }
+        return new String[]{Integer.toString(status), new String(response.toByteArray(), StandardCharsets.US_ASCII)};
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "5.5,BIG,true,65|200|840.00",
+            "-52.76,Little,1,90|200|720.00",
+            "82.7,little,true,90|422|FRAGILE_GOODS_BEYOND_LIMIT",
+            "25,,true,90|422|GOODS_DIMENSION_ABSENT",
+            "far,BIG,true,65|400|MALFORMED_ROW",
+            "5,BIG,true|400|MALFORMED_ROW",
+            "NaN,BIG,true,65|400|MALFORMED_ROW"}, delimiter = '|')
+    @DisplayName("Single quote over HTTP")
+    void quoteTest(String row, int expectedStatus, String expectedBody) throws IOException {
+        String[] response = request(server.getPort(), "GET", "/quote?" + row, null);
+        assertEquals(Integer.toString(expectedStatus), response[0]);
+        assertEquals(expectedBody + "\n", response[1]);
+    }
+
+    @Test
+    @DisplayName("Quote with pricing rule attributes over HTTP")
+    void pricingRulesQuoteTest() throws IOException, InvalidTariffException {
+        deliveryManager.setPricingRules(PricingRules.parse("version 3\n"
+                + "attribute hour\n"
+                + "attribute region: MOSCOW, KAZAN\n"
+                + "add base: 500\n"
+                + "add night: 150 if hour >= 22 or hour < 6, 0\n"
+                + "multiply region: 1.5 if region = MOSCOW, 1\n"));
+        String[] response = request(server.getPort(), "POST", "/quotes",
+                "5.5,BIG,true,65,23,MOSCOW\n5.5,BIG,true,65,12,KAZAN\n5.5,BIG,true,65\n"
+                        + "5.5,BIG,true,65,12,PARIS\n5.5,BIG,true,65,12\n5.5,,true,65,12,KAZAN\n");
+        assertEquals("200", response[0]);
+        assertEquals("975.00\n500.00\n975.00\nMALFORMED_ROW\nMALFORMED_ROW\nGOODS_DIMENSION_ABSENT\n", response[1]);
+    }
+
+    @Test
+    @DisplayName("Batch quote over HTTP")
+    void quotesTest() throws IOException {
+        String[] response = request(server.getPort(), "POST", "/quotes",
+                "5.5,BIG,true,65\r\n82.7,little,true,90\n25,,true,90\nfar,BIG,true,65\n25,BIG,false,85\n");
+        assertEquals("200", response[0]);
+        assertEquals("840.00\nFRAGILE_GOODS_BEYOND_LIMIT\nGOODS_DIMENSION_ABSENT\nMALFORMED_ROW\n640.00\n", response[1]);
+        assertEquals("405", request(server.getPort(), "GET", "/quotes", null)[0]);
+    }
+
+    @Test
+    @DisplayName("Concurrent quotes over HTTP")
+    void concurrentQuoteTest() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    try {
+                        String[] response = request(server.getPort(), "GET", "/quote?5.5,BIG,true,65", null);
+                        if (!"840.00\n".equals(response[1])) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    @DisplayName("Requests are handled on virtual threads when the runtime has them")
+    void executorTest() throws Exception {
+        String version = System.getProperty("java.specification.version");
+        boolean hasVirtualThreads = !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+        ExecutorService executor = QuoteHttpServer.createExecutor();
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+            boolean isVirtual = hasVirtualThreads && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+            assertEquals(hasVirtualThreads, isVirtual, "Java " + version);
+            if (!hasVirtualThreads) {
+                assertEquals("quote-http-server", thread.getName());
+                assertTrue(thread.isDaemon());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
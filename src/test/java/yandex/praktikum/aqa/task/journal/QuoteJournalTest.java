@@ -0,0 +1,226 @@
+package yandex.praktikum.aqa.task.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.rules.PricingRules;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+import yandex.praktikum.aqa.task.tariff.TariffRegistry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuoteJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Journaled quotes are read back in order across segments")
+    void journalTest() throws IOException, InvalidDeliveryException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        try (QuoteJournal journal = new QuoteJournal(directory, 100, 5)) {
+            deliveryManager.setQuoteEventSink(journal);
+            for (int i = 0; i < 250; i++) {
+                deliveryManager.getCost(i % 40, i % 2 == 0 ? DeliveryManager.GoodsDimension.BIG
+                        : DeliveryManager.GoodsDimension.LITTLE, i % 40 <= 30 && i % 3 == 0, i % 101);
+            }
+            assertEquals(250, journal.getAppendedRecords());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        List<String> records = new ArrayList<>();
+        assertEquals(250, QuoteJournalReader.read(directory, record -> {
+            int i = (int) record.getSequence();
+            assertEquals(i % 40, record.getDistance());
+            assertEquals(i % 2 == 0 ? DeliveryManager.GoodsDimension.BIG : DeliveryManager.GoodsDimension.LITTLE,
+                    record.getGoodsDimension());
+            assertEquals(i % 101, record.getDeliveryServiceWorkload());
+            records.add(record.toString());
+        }));
+        assertEquals(250, records.size());
+
+        try (QuoteJournal journal = new QuoteJournal(directory, 100, 5)) {
+            assertEquals(251, journal.append(1, 5, DeliveryManager.GoodsDimension.BIG, true, 65, 84000, 0) + 1);
+            journal.flush();
+            assertEquals(251, journal.getCommittedRecords());
+        }
+        assertEquals(251, QuoteJournalReader.read(directory, record -> { }));
+    }
+
+    @Test
+    @DisplayName("Journal without quotes is reopened")
+    void reopenEmptyJournalTest() throws IOException {
+        new QuoteJournal(directory, 10, 5).close();
+        new QuoteJournal(directory, 10, 5).close();
+        try (QuoteJournal journal = new QuoteJournal(directory, 10, 5)) {
+            assertEquals(0, journal.append(1, 5, DeliveryManager.GoodsDimension.BIG, true, 65, 84000, 0));
+        }
+        try (QuoteJournal journal = new QuoteJournal(directory, 10, 5)) {
+            assertEquals(1, journal.append(1, 5, DeliveryManager.GoodsDimension.BIG, true, 65, 84000, 0));
+        }
+        new QuoteJournal(directory, 10, 5).close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        assertEquals(2, QuoteJournalReader.read(directory, record -> { }));
+    }
+
+    @Test
+    @DisplayName("Quotes are committed to disk in groups without flushing")
+    void groupCommitTest() throws Exception {
+        try (QuoteJournal journal = new QuoteJournal(directory, 1000, 5)) {
+            for (int i = 0; i < 10; i++) {
+                journal.publish(5, DeliveryManager.GoodsDimension.BIG, true, 65, 84000, 0);
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (journal.getCommittedRecords() < 10 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(10, journal.getCommittedRecords());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrently journaled quotes are all read back")
+    void concurrentJournalTest() throws Exception {
+        // 10000 records fit into the segments mapped ahead, so none is dropped however slow the committer is
+        try (QuoteJournal journal = new QuoteJournal(directory, 4000, 1)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int workload = i;
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < 2500; j++) {
+                        journal.publish(j, DeliveryManager.GoodsDimension.LITTLE, false, workload, j, 0);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        long[] costs = new long[4];
+        assertEquals(10_000, QuoteJournalReader.read(directory, record -> {
+            assertEquals(record.getDistance(), record.getCost());
+            costs[record.getDeliveryServiceWorkload()] += record.getCost();
+        }));
+        for (long cost : costs) {
+            assertEquals(2499L * 2500 / 2, cost);
+        }
+    }
+
+    @Test
+    @DisplayName("Replay finds quotes priced differently with another tariff and skips rule-priced quotes")
+    void replayTest() throws Exception {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        Random random = new Random(13);
+        try (QuoteJournal journal = new QuoteJournal(directory, 8192, 5)) {
+            deliveryManager.setQuoteEventSink(journal);
+            for (int i = 0; i < 20_000; i++) {
+                boolean isFragileGoods = random.nextBoolean();
+                deliveryManager.getCostInKopecks(random.nextDouble() * (isFragileGoods ? 30 : 50),
+                        random.nextBoolean() ? DeliveryManager.GoodsDimension.BIG : DeliveryManager.GoodsDimension.LITTLE,
+                        isFragileGoods, random.nextInt(101));
+            }
+            // rule attributes are not journaled, so these quotes can't be replayed
+            deliveryManager.setPricingRules(PricingRules.parse("version 5\n"
+                    + "add base: 500 if distance > 4.5, 100\n"
+                    + "multiply workload: 2 if workload >= 50, 1\n"));
+            for (int i = 0; i < 1_000; i++) {
+                deliveryManager.getCostInKopecks(random.nextDouble() * 50, DeliveryManager.GoodsDimension.BIG, false,
+                        random.nextInt(101));
+            }
+        }
+        AtomicLong ruleBased = new AtomicLong();
+        assertEquals(21_000, QuoteJournalReader.read(directory, record -> {
+            if (record.isRuleBased()) {
+                ruleBased.incrementAndGet();
+                assertEquals(5, record.getTariffVersion());
+            }
+        }));
+        assertEquals(1_000, ruleBased.get());
+        QuoteJournalReplay.Summary summary = new QuoteJournalReplay(new DeliveryManager())
+                .replay(directory, (record, replayedCost, reason) -> {
+                    throw new AssertionError(record.toString());
+                });
+        assertEquals(20_000, summary.getReplayedRecords());
+        assertEquals(0, summary.getDriftedRecords());
+        assertEquals(1_000, summary.getSkippedRecords());
+
+        // fragile goods limit lowered to 20km and medium distance cost raised to 150 RUB
+        TariffRegistry tariffRegistry = new TariffRegistry(new Tariff(1,
+                new BigDecimal[]{BigDecimal.valueOf(50), BigDecimal.valueOf(150), BigDecimal.valueOf(200), BigDecimal.valueOf(300)},
+                BigDecimal.valueOf(200), BigDecimal.valueOf(100), BigDecimal.valueOf(300),
+                new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(1.2), BigDecimal.valueOf(1.4), BigDecimal.valueOf(1.6)},
+                BigDecimal.valueOf(400), BigDecimal.valueOf(20)));
+        AtomicLong drifted = new AtomicLong();
+        summary = new QuoteJournalReplay(new DeliveryManager(tariffRegistry))
+                .replay(directory, (record, replayedCost, reason) -> {
+                    drifted.incrementAndGet();
+                    if (reason == null) {
+                        assertTrue(record.getDistance() > 2 && record.getDistance() <= 10, record.toString());
+                        assertTrue(replayedCost > record.getCost(), record.toString());
+                    } else {
+                        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, reason);
+                        assertTrue(record.isFragileGoods() && record.getDistance() > 20, record.toString());
+                    }
+                });
+        assertEquals(20_000, summary.getReplayedRecords());
+        assertEquals(drifted.get(), summary.getDriftedRecords());
+        assertTrue(summary.getDriftedRecords() > 0);
+        assertEquals(1_000, summary.getSkippedRecords());
+    }
+
+    @Test
+    @DisplayName("Pricing is not failed by journal I/O errors, quotes beyond the mapped segments are dropped")
+    void journalFailureTest() throws IOException, InvalidDeliveryException, InterruptedException {
+        Path journalDirectory = directory.resolve("journal");
+        DeliveryManager deliveryManager = new DeliveryManager();
+        try (QuoteJournal journal = new QuoteJournal(journalDirectory, 10, 1)) {
+            deliveryManager.setQuoteEventSink(journal);
+            // mapped segments stay writable, new segments can't be created
+            try (Stream<Path> files = Files.list(journalDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(journalDirectory);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(new BigDecimal("840.00"),
+                        deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true, 65));
+                Thread.sleep(1);
+            }
+            assertEquals(10 * (QuoteJournal.SEGMENTS_AHEAD + 1), journal.getAppendedRecords());
+            assertEquals(100 - journal.getAppendedRecords(), journal.getDroppedRecords());
+            assertTrue(journal.getFailure() != null);
+        }
+    }
+
+    @Test
+    @DisplayName("Journal rejects foreign files and closed journal drops quotes")
+    void journalNegativeTest() throws IOException {
+        QuoteJournal journal = new QuoteJournal(directory, 10, 5);
+        journal.close();
+        assertEquals(-1, journal.append(1, 5, null, true, 65, 84000, 0));
+        Files.write(directory.resolve("quotes-99999999999999999999.journal"), new byte[64]);
+        assertThrows(IOException.class, () -> QuoteJournalReader.read(directory, record -> { }));
+    }
+
+}
@@ -0,0 +1,285 @@
+package yandex.praktikum.aqa.task.load;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.metrics.LatencyHistogram;
+import yandex.praktikum.aqa.task.tariff.TariffRegistry;
+import yandex.praktikum.aqa.task.utils.DeliveryDataGenerator;
+import yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.DSWType;
+import yandex.praktikum.aqa.task.utils.DeliveryDataGenerator.DistanceType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for a single shared {@link DeliveryManager}. Every thread calls
+ * {@link DeliveryManager#getCost} on a fixed schedule, so the target rate doesn't drop when calls slow down.
+ * Latency is measured from the scheduled start of a call, not from its actual start: a call delayed by
+ * a previous slow one is counted with the delay, which corrects coordinated omission.
+ * Every result is compared with the result of the same input priced on a single thread before the run.
+ */
+public class DeliveryManagerLoadGenerator {
+
+    private static final int INPUTS_PER_THREAD = 1 << 12;
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Input mix: weights of distance and workload tiers, share of fragile goods and of absent goods dimension
+     */
+    public enum Mix {
+        UNIFORM(new int[]{1, 1, 1, 1}, new int[]{1, 1, 1, 1}, 0.5, 0),
+        CITY(new int[]{4, 4, 1, 0}, new int[]{1, 2, 2, 1}, 0.3, 0),
+        PEAK(new int[]{1, 1, 1, 1}, new int[]{0, 0, 1, 3}, 0.5, 0),
+        INVALID_HEAVY(new int[]{1, 1, 1, 4}, new int[]{1, 1, 1, 1}, 0.8, 0.2);
+
+        private final int[] distanceWeights;
+        private final int[] workloadWeights;
+        private final double fragileGoodsShare;
+        private final double absentGoodsDimensionShare;
+
+        Mix(int[] distanceWeights, int[] workloadWeights, double fragileGoodsShare, double absentGoodsDimensionShare) {
+            this.distanceWeights = distanceWeights;
+            this.workloadWeights = workloadWeights;
+            this.fragileGoodsShare = fragileGoodsShare;
+            this.absentGoodsDimensionShare = absentGoodsDimensionShare;
+        }
+
+        private static int pick(SplittableRandom random, int[] weights) {
+            int total = 0;
+            for (int weight : weights) {
+                total += weight;
+            }
+            int value = random.nextInt(total);
+            for (int i = 0; i < weights.length; i++) {
+                value -= weights[i];
+                if (value < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+
+    }
+
+    /**
+     * Results of a run
+     */
+    public static class Report {
+
+        private final long scheduledCalls;
+        private final long completedCalls;
+        private final long mismatches;
+        private final long elapsedNanos;
+        private final LatencyHistogram latency;
+        private final LatencyHistogram serviceTime;
+
+        Report(long scheduledCalls, long completedCalls, long mismatches, long elapsedNanos,
+               LatencyHistogram latency, LatencyHistogram serviceTime) {
+            this.scheduledCalls = scheduledCalls;
+            this.completedCalls = completedCalls;
+            this.mismatches = mismatches;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+            this.serviceTime = serviceTime;
+        }
+
+        public long getScheduledCalls() {
+            return scheduledCalls;
+        }
+
+        public long getCompletedCalls() {
+            return completedCalls;
+        }
+
+        /**
+         * @return number of results different from the single-threaded baseline
+         */
+        public long getMismatches() {
+            return mismatches;
+        }
+
+        /**
+         * @return completed calls per second
+         */
+        public double getThroughput() {
+            return completedCalls * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return latency from the scheduled start of calls (ns), corrected for coordinated omission
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return time from the actual start of calls (ns), not corrected for coordinated omission
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls: %d scheduled, %d completed, %d mismatches%n"
+                            + "throughput: %.0f calls/s%n"
+                            + "latency (ns):      p50 %d, p99 %d, p99.9 %d, max %d%n"
+                            + "service time (ns): p50 %d, p99 %d, p99.9 %d, max %d",
+                    scheduledCalls, completedCalls, mismatches, getThroughput(),
+                    latency.getPercentile(50), latency.getPercentile(99), latency.getPercentile(99.9),
+                    latency.getPercentile(100), serviceTime.getPercentile(50), serviceTime.getPercentile(99),
+                    serviceTime.getPercentile(99.9), serviceTime.getPercentile(100));
+        }
+
+    }
+
+    private final DeliveryManager deliveryManager;
+    private final Mix mix;
+    private final long seed;
+
+    /**
+     * @param deliveryManager   - manager shared by all threads
+     * @param mix               - input mix
+     * @param seed              - seed of input generation
+     */
+    public DeliveryManagerLoadGenerator(DeliveryManager deliveryManager, Mix mix, long seed) {
+        this.deliveryManager = deliveryManager;
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    /**
+     * Drive the manager at the target rate
+     *
+     * @param targetRate    - calls per second for all threads together
+     * @param threads       - number of threads
+     * @param duration      - duration of the run (ms)
+     * @return throughput, latency and mismatches of the run
+     */
+    public Report run(int targetRate, int threads, long duration) throws InterruptedException {
+        if (targetRate < 1 || threads < 1 || duration < 1) {
+            throw new IllegalArgumentException("Target rate, threads and duration must be positive");
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(threads) / targetRate;
+        long durationNanos = TimeUnit.MILLISECONDS.toNanos(duration);
+        // single-threaded baseline with the same tariff, but without events and metrics of the tested manager
+        DeliveryManager baseline = new DeliveryManager(new TariffRegistry(deliveryManager.getTariff()));
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder completedCalls = new LongAdder();
+        LongAdder mismatches = new LongAdder();
+        AtomicLong scheduledCalls = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        List<Worker> inputs = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            inputs.add(new Worker(new SplittableRandom(seed + i), baseline));
+        }
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = inputs.get(i);
+            // threads are shifted within the interval to spread calls evenly
+            long firstCall = start + intervalNanos * i / threads;
+            Thread thread = new Thread(() -> {
+                long calls = 0;
+                long mismatched = 0;
+                for (long scheduled = firstCall; scheduled - start < durationNanos; scheduled += intervalNanos) {
+                    waitUntil(scheduled);
+                    long callStart = System.nanoTime();
+                    int input = (int) (calls & (INPUTS_PER_THREAD - 1));
+                    BigDecimal cost;
+                    try {
+                        cost = deliveryManager.getCost(worker.distances[input], worker.goodsDimensions[input],
+                                worker.fragileGoods[input], worker.deliveryServiceWorkloads[input]);
+                    } catch (InvalidDeliveryException e) {
+                        cost = null;
+                    }
+                    long end = System.nanoTime();
+                    latency.record(end - scheduled);
+                    serviceTime.record(end - callStart);
+                    BigDecimal expectedCost = worker.expectedCosts[input];
+                    if (expectedCost == null ? cost != null : !expectedCost.equals(cost)) {
+                        mismatched++;
+                    }
+                    calls++;
+                }
+                scheduledCalls.addAndGet(calls);
+                completedCalls.add(calls);
+                mismatches.add(mismatched);
+            }, "load-generator-" + i);
+            workers.add(thread);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        return new Report(scheduledCalls.get(), completedCalls.sum(), mismatches.sum(), elapsedNanos, latency,
+                serviceTime);
+    }
+
+    private static void waitUntil(long time) {
+        long remaining;
+        while ((remaining = time - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private class Worker {
+
+        private final double[] distances = new double[INPUTS_PER_THREAD];
+        private final DeliveryManager.GoodsDimension[] goodsDimensions = new DeliveryManager.GoodsDimension[INPUTS_PER_THREAD];
+        private final boolean[] fragileGoods = new boolean[INPUTS_PER_THREAD];
+        private final int[] deliveryServiceWorkloads = new int[INPUTS_PER_THREAD];
+        private final BigDecimal[] expectedCosts = new BigDecimal[INPUTS_PER_THREAD];
+
+        Worker(SplittableRandom random, DeliveryManager baseline) {
+            for (int i = 0; i < INPUTS_PER_THREAD; i++) {
+                distances[i] = DeliveryDataGenerator.generateDistance(random,
+                        DistanceType.values()[Mix.pick(random, mix.distanceWeights)]);
+                goodsDimensions[i] = random.nextDouble() < mix.absentGoodsDimensionShare ? null
+                        : random.nextBoolean() ? DeliveryManager.GoodsDimension.BIG : DeliveryManager.GoodsDimension.LITTLE;
+                fragileGoods[i] = random.nextDouble() < mix.fragileGoodsShare;
+                deliveryServiceWorkloads[i] = DeliveryDataGenerator.generateDeliveryServiceWorkload(random,
+                        DSWType.values()[Mix.pick(random, mix.workloadWeights)]);
+                try {
+                    expectedCosts[i] = baseline.getCost(distances[i], goodsDimensions[i], fragileGoods[i],
+                            deliveryServiceWorkloads[i]);
+                } catch (InvalidDeliveryException e) {
+                    expectedCosts[i] = null;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Run load against a manager with the default tariff: targetRate threads durationSeconds [mix]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: DeliveryManagerLoadGenerator <calls per second> <threads> <seconds> "
+                    + "[UNIFORM|CITY|PEAK|INVALID_HEAVY]");
+            System.exit(2);
+        }
+        Mix mix = args.length > 3 ? Mix.valueOf(args[3]) : Mix.UNIFORM;
+        Report report = new DeliveryManagerLoadGenerator(new DeliveryManager(), mix, 42)
+                .run(Integer.parseInt(args[0]), Integer.parseInt(args[1]), TimeUnit.SECONDS.toMillis(Long.parseLong(args[2])));
+        System.out.println(report);
+        if (report.getMismatches() > 0) {
+            System.exit(1);
+        }
+    }
+
+}
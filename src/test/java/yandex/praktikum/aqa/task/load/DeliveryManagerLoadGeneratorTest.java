@@ -0,0 +1,45 @@
+package yandex.praktikum.aqa.task.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.events.AsyncQuoteEventSink;
+import yandex.praktikum.aqa.task.metrics.PricingMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeliveryManagerLoadGeneratorTest {
+
+    @ParameterizedTest
+    @EnumSource(DeliveryManagerLoadGenerator.Mix.class)
+    @DisplayName("Shared delivery manager under load gives single-threaded results")
+    void loadTest(DeliveryManagerLoadGenerator.Mix mix) throws InterruptedException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        PricingMetrics pricingMetrics = new PricingMetrics();
+        deliveryManager.setPricingMetrics(pricingMetrics);
+        try (AsyncQuoteEventSink sink = new AsyncQuoteEventSink(event -> { }, 1 << 10, 1)) {
+            deliveryManager.setQuoteEventSink(sink);
+            DeliveryManagerLoadGenerator.Report report = new DeliveryManagerLoadGenerator(deliveryManager, mix,
+                    mix.ordinal()).run(20_000, 4, 300);
+            assertEquals(0, report.getMismatches());
+            assertEquals(6000, report.getScheduledCalls());
+            assertEquals(report.getScheduledCalls(), report.getCompletedCalls());
+            assertEquals(report.getCompletedCalls(), report.getLatency().getCount());
+            assertEquals(report.getCompletedCalls(), pricingMetrics.getQuotes() + pricingMetrics.getRejections());
+            assertTrue(report.getLatency().getPercentile(50) >= report.getServiceTime().getPercentile(50));
+        }
+    }
+
+    @Test
+    @DisplayName("Load generator with invalid parameters")
+    void loadNegativeTest() {
+        DeliveryManagerLoadGenerator loadGenerator = new DeliveryManagerLoadGenerator(new DeliveryManager(),
+                DeliveryManagerLoadGenerator.Mix.UNIFORM, 0);
+        assertThrows(IllegalArgumentException.class, () -> loadGenerator.run(0, 1, 100));
+    }
+
+}
@@ -0,0 +1,63 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of {@link DeliveryManager#getCostInKopecks} without metrics, with disabled and with enabled metrics,
+ * on a single thread and on all available threads sharing one manager.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingMetricsBenchmark {
+
+    public enum Metrics {
+        NONE, DISABLED, ENABLED
+    }
+
+    @Param
+    public Metrics metrics;
+
+    private DeliveryManager deliveryManager;
+
+    @Setup
+    public void setUp() {
+        deliveryManager = new DeliveryManager();
+        if (metrics != Metrics.NONE) {
+            PricingMetrics pricingMetrics = new PricingMetrics();
+            pricingMetrics.setEnabled(metrics == Metrics.ENABLED);
+            deliveryManager.setPricingMetrics(pricingMetrics);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long getCostInKopecksSingleThreaded() throws InvalidDeliveryException {
+        return deliveryManager.getCostInKopecks(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long getCostInKopecksMultiThreaded() throws InvalidDeliveryException {
+        return deliveryManager.getCostInKopecks(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+    }
+
+}
@@ -0,0 +1,112 @@
+package yandex.praktikum.aqa.task.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PricingMetricsTest {
+
+    @Test
+    @DisplayName("Latency is recorded into bucket containing it")
+    void latencyBucketTest() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long latency = i < 1000 ? i : random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = LatencyHistogram.getBucket(latency);
+            assertTrue(bucket >= 0 && bucket < LatencyHistogram.BUCKETS);
+            assertTrue(latency <= LatencyHistogram.getBucketMaxValue(bucket), Long.toString(latency));
+            assertTrue(bucket == 0 || latency > LatencyHistogram.getBucketMaxValue(bucket - 1), Long.toString(latency));
+            assertTrue(LatencyHistogram.getBucketMaxValue(bucket) <= latency * 1.25, Long.toString(latency));
+        }
+        assertEquals(0, LatencyHistogram.getBucket(-5));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getBucketMaxValue(LatencyHistogram.getBucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Quotes and rejections are counted by tiers and reasons")
+    void pricingMetricsTest() throws InvalidDeliveryException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        PricingMetrics metrics = new PricingMetrics(1);
+        deliveryManager.setPricingMetrics(metrics);
+        deliveryManager.getCost(1, DeliveryManager.GoodsDimension.LITTLE, false, 0);
+        deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+        deliveryManager.getCostInKopecks(25, DeliveryManager.GoodsDimension.BIG, false, 90);
+        deliveryManager.quote(40, DeliveryManager.GoodsDimension.LITTLE, false, 45);
+        deliveryManager.quote(40, DeliveryManager.GoodsDimension.LITTLE, true, 45);
+        assertThrows(InvalidDeliveryException.class, () -> deliveryManager.getCost(25, null, true, 90));
+        PricingMetricsSnapshot snapshot = metrics.getSnapshot();
+        assertEquals(4, snapshot.getQuotes());
+        assertEquals(2, snapshot.getRejections());
+        assertEquals(1, snapshot.getRejections(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT));
+        assertEquals(1, snapshot.getRejections(RejectionReason.GOODS_DIMENSION_ABSENT));
+        assertArrayEquals(new long[]{1, 1, 1, 1}, metrics.getQuotesByDistanceTier());
+        assertArrayEquals(new long[]{1, 1, 1, 1}, metrics.getQuotesByWorkloadTier());
+        assertEquals(2, snapshot.getQuotesByGoodsDimension(DeliveryManager.GoodsDimension.BIG));
+        assertEquals(1, snapshot.getFragileGoodsQuotes());
+        // only 1km little goods (150 RUB) are raised to 400 RUB
+        assertEquals(1, snapshot.getMinCostQuotes());
+        assertEquals(0.25, snapshot.getMinCostQuoteShare());
+        assertEquals(6, snapshot.getLatencyCount());
+        assertTrue(snapshot.getLatencyPercentile(50) <= snapshot.getLatencyPercentile(100));
+
+        metrics.setEnabled(false);
+        deliveryManager.getCost(1, DeliveryManager.GoodsDimension.LITTLE, false, 0);
+        assertEquals(4, metrics.getQuotes());
+        metrics.reset();
+        assertEquals(0, metrics.getSnapshot().getLatencyCount());
+        assertEquals(0, metrics.getLatencyP99());
+    }
+
+    @Test
+    @DisplayName("Only quotes raised to the minimal cost are counted as minimal cost quotes")
+    void minCostQuotesTest() throws InvalidDeliveryException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        PricingMetrics metrics = new PricingMetrics(1);
+        deliveryManager.setPricingMetrics(metrics);
+        // 200 + 200 = 400 RUB is the minimal cost without raising
+        assertEquals(40000, deliveryManager.getCostInKopecks(25, DeliveryManager.GoodsDimension.BIG, false, 10));
+        assertEquals(0, metrics.getSnapshot().getMinCostQuotes());
+        // 100 + 200 = 300 RUB is raised to 400 RUB
+        assertEquals(40000, deliveryManager.getCostInKopecks(5, DeliveryManager.GoodsDimension.BIG, false, 10));
+        assertEquals(1, metrics.getSnapshot().getMinCostQuotes());
+        assertEquals(0.5, metrics.getMinCostQuoteShare());
+    }
+
+    @Test
+    @DisplayName("Metrics are readable over JMX")
+    void pricingMetricsJmxTest() throws Exception {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        PricingMetrics metrics = new PricingMetrics();
+        deliveryManager.setPricingMetrics(metrics);
+        deliveryManager.quote(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+        deliveryManager.quote(25, null, true, 90);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = metrics.register("test");
+        try {
+            assertEquals(1L, server.getAttribute(objectName, "Quotes"));
+            assertEquals(1L, server.getAttribute(objectName, "Rejections"));
+            TabularData rejections = (TabularData) server.getAttribute(objectName, "RejectionsByReason");
+            CompositeData rejection = rejections.get(new Object[]{RejectionReason.GOODS_DIMENSION_ABSENT.name()});
+            assertEquals(1L, rejection.get("value"));
+            server.invoke(objectName, "reset", null, null);
+            assertEquals(0L, server.getAttribute(objectName, "Quotes"));
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+}
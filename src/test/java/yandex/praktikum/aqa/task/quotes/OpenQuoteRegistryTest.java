@@ -0,0 +1,139 @@
+package yandex.praktikum.aqa.task.quotes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.rules.PricingRules;
+import yandex.praktikum.aqa.task.tariff.Tariff;
+import yandex.praktikum.aqa.task.tariff.TariffRegistry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OpenQuoteRegistryTest {
+
+    @Test
+    @DisplayName("Open quotes are repriced once per group on workload tier change")
+    void repriceOnWorkloadTierChangeTest() throws InvalidDeliveryException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        OpenQuoteRegistry registry = new OpenQuoteRegistry(deliveryManager, 10);
+        List<QuoteGroup> repricedGroups = new ArrayList<>();
+        registry.addListener((group, oldCost) -> repricedGroups.add(group));
+        Random random = new Random(5);
+        List<OpenQuote> quotes = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            boolean isFragileGoods = random.nextBoolean();
+            double distance = random.nextDouble() * (isFragileGoods ? 30 : 50);
+            quotes.add(registry.open(distance, random.nextBoolean() ? DeliveryManager.GoodsDimension.BIG
+                    : DeliveryManager.GoodsDimension.LITTLE, isFragileGoods));
+        }
+        assertEquals(quotes.size(), registry.size());
+
+        assertEquals(0, registry.setDeliveryServiceWorkload(39));
+        assertTrue(repricedGroups.isEmpty());
+        for (int deliveryServiceWorkload : new int[]{65, 100, 0, 45}) {
+            repricedGroups.clear();
+            int repriced = registry.setDeliveryServiceWorkload(deliveryServiceWorkload);
+            assertEquals(repriced, repricedGroups.size());
+            assertTrue(repriced > 0 && repriced <= 16, Integer.toString(repriced));
+            for (OpenQuote quote : quotes) {
+                assertEquals(deliveryManager.getCostInKopecks(quote.getDistance(), quote.getGoodsDimension(),
+                        quote.isFragileGoods(), deliveryServiceWorkload), quote.getCostInKopecks(), quote.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Only groups with open quotes and changed cost are pushed to listeners")
+    void repricedGroupsTest() throws InvalidDeliveryException {
+        OpenQuoteRegistry registry = new OpenQuoteRegistry(new DeliveryManager(), 0);
+        List<Long> oldCosts = new ArrayList<>();
+        registry.addListener((group, oldCost) -> oldCosts.add(oldCost));
+        // 1km little goods cost the minimum 400 RUB in every workload tier
+        OpenQuote minCostQuote = registry.open(1, DeliveryManager.GoodsDimension.LITTLE, false);
+        OpenQuote quote = registry.open(5, DeliveryManager.GoodsDimension.BIG, true);
+        assertEquals(new BigDecimal("600.00"), quote.getCost());
+        assertEquals(1, registry.setDeliveryServiceWorkload(65));
+        assertEquals(new BigDecimal("840.00"), quote.getCost());
+        assertEquals(new BigDecimal("400.00"), minCostQuote.getCost());
+        assertEquals(1, oldCosts.size());
+        assertEquals(60000, oldCosts.get(0));
+        assertTrue(registry.close(quote));
+        assertFalse(registry.close(quote));
+        assertEquals(0, registry.setDeliveryServiceWorkload(90));
+        assertThrows(InvalidDeliveryException.class, () -> registry.open(31, DeliveryManager.GoodsDimension.BIG, true));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Open quotes are not priced with pricing rules")
+    void pricingRulesTest() throws Exception {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        OpenQuoteRegistry registry = new OpenQuoteRegistry(deliveryManager, 65);
+        OpenQuote quote = registry.open(5, DeliveryManager.GoodsDimension.BIG, true);
+        deliveryManager.setPricingRules(PricingRules.parse("version 5\n"
+                + "add base: 500 if distance > 4.5, 100\n"
+                + "multiply workload: 2 if workload >= 50, 1\n"));
+        assertThrows(IllegalStateException.class, () -> registry.open(5, DeliveryManager.GoodsDimension.BIG, true));
+        assertThrows(IllegalStateException.class, () -> registry.setDeliveryServiceWorkload(10));
+        assertThrows(IllegalStateException.class, registry::repriceAll);
+        assertThrows(IllegalStateException.class, () -> new OpenQuoteRegistry(deliveryManager, 65));
+        assertEquals(new BigDecimal("840.00"), quote.getCost());
+        assertEquals(1, registry.size());
+
+        deliveryManager.setPricingRules(null);
+        assertEquals(new BigDecimal("840.00"), registry.open(5, DeliveryManager.GoodsDimension.BIG, true).getCost());
+    }
+
+    @Test
+    @DisplayName("Open quotes are repriced when tariff is replaced")
+    void repriceOnTariffChangeTest() throws Exception {
+        TariffRegistry tariffRegistry = new TariffRegistry(Tariff.DEFAULT);
+        OpenQuoteRegistry registry = new OpenQuoteRegistry(new DeliveryManager(tariffRegistry), 65);
+        OpenQuote quote = registry.open(5, DeliveryManager.GoodsDimension.BIG, true);
+        tariffRegistry.publish(new Tariff(1,
+                new BigDecimal[]{BigDecimal.valueOf(50), BigDecimal.valueOf(200), BigDecimal.valueOf(200), BigDecimal.valueOf(300)},
+                BigDecimal.valueOf(200), BigDecimal.valueOf(100), BigDecimal.valueOf(300),
+                new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(1.2), BigDecimal.valueOf(1.4), BigDecimal.valueOf(1.6)},
+                BigDecimal.valueOf(400), BigDecimal.valueOf(30)));
+        assertEquals(new BigDecimal("840.00"), quote.getCost());
+        OpenQuote newQuote = registry.open(6, DeliveryManager.GoodsDimension.BIG, true);
+        assertEquals(new BigDecimal("980.00"), newQuote.getCost());
+        assertEquals(new BigDecimal("980.00"), quote.getCost());
+
+        // opened group keeps its cost, the group of the open quote is repriced anyway
+        List<Long> oldCosts = new ArrayList<>();
+        registry.addListener((group, oldCost) -> oldCosts.add(oldCost));
+        OpenQuote farQuote = registry.open(40, DeliveryManager.GoodsDimension.BIG, false);
+        assertEquals(new BigDecimal("700.00"), farQuote.getCost());
+        tariffRegistry.publish(new Tariff(2,
+                new BigDecimal[]{BigDecimal.valueOf(50), BigDecimal.valueOf(200), BigDecimal.valueOf(200), BigDecimal.valueOf(500)},
+                BigDecimal.valueOf(200), BigDecimal.valueOf(100), BigDecimal.valueOf(300),
+                new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(1.2), BigDecimal.valueOf(1.4), BigDecimal.valueOf(1.6)},
+                BigDecimal.valueOf(400), BigDecimal.valueOf(30)));
+        assertEquals(new BigDecimal("980.00"), registry.open(7, DeliveryManager.GoodsDimension.BIG, true).getCost());
+        assertEquals(new BigDecimal("980.00"), farQuote.getCost());
+        assertEquals(new BigDecimal("980.00"), quote.getCost());
+        assertEquals(1, oldCosts.size());
+        assertEquals(70000, oldCosts.get(0));
+
+        // default tariff again
+        tariffRegistry.publish(new Tariff(3,
+                new BigDecimal[]{BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(200), BigDecimal.valueOf(300)},
+                BigDecimal.valueOf(200), BigDecimal.valueOf(100), BigDecimal.valueOf(300),
+                new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(1.2), BigDecimal.valueOf(1.4), BigDecimal.valueOf(1.6)},
+                BigDecimal.valueOf(400), BigDecimal.valueOf(30)));
+        assertEquals(2, registry.setDeliveryServiceWorkload(70));
+        assertEquals(new BigDecimal("840.00"), quote.getCost());
+        assertEquals(new BigDecimal("700.00"), farQuote.getCost());
+    }
+
+}
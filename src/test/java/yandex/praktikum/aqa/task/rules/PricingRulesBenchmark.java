@@ -0,0 +1,120 @@
+package yandex.praktikum.aqa.task.rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of quoting with the default pricing rules compiled by {@link PricingRules} compared with the hard-coded
+ * {@link DeliveryManager#getCost}, on inputs from every distance and delivery service workload tier,
+ * both standalone and as the {@link DeliveryManager#setPricingRules(PricingRules) pricing rules} of the manager.
+ * Run with {@code mvn test -Pbenchmark -Djmh.args=PricingRulesBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingRulesBenchmark {
+
+    private static final PricingRules RULES;
+    // constant handle is inlined into the caller by JIT, like a hand-written method
+    private static final MethodHandle COST;
+    private static final long MIN_COST;
+    private static final int[] NO_ATTRIBUTES = new int[0];
+
+    static {
+        try {
+            RULES = PricingRules.parse(PricingRules.DEFAULT_RULES);
+        } catch (InvalidTariffException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        COST = RULES.getMethodHandle();
+        MIN_COST = RULES.getMinCostInKopecks();
+    }
+
+    private static final int MASK = 15;
+
+    private final double[] distances = new double[MASK + 1];
+    private final int[] workloads = new int[MASK + 1];
+    private final DeliveryManager.GoodsDimension[] goodsDimensions = new DeliveryManager.GoodsDimension[MASK + 1];
+    private final boolean[] fragility = new boolean[MASK + 1];
+
+    private DeliveryManager deliveryManager;
+    private DeliveryManager ruleBasedDeliveryManager;
+    private PricingRules rules;
+    private int position;
+
+    @Setup
+    public void setUp() throws InvalidTariffException {
+        deliveryManager = new DeliveryManager();
+        rules = PricingRules.parse(PricingRules.DEFAULT_RULES);
+        ruleBasedDeliveryManager = new DeliveryManager();
+        ruleBasedDeliveryManager.setPricingRules(rules);
+        double[] tierDistances = {1.2, 6.5, 25, 82.7};
+        int[] tierWorkloads = {25, 45, 65, 85};
+        for (int i = 0; i <= MASK; i++) {
+            distances[i] = tierDistances[i & 3];
+            workloads[i] = tierWorkloads[(i >> 2) & 3];
+            goodsDimensions[i] = (i & 1) == 0 ? DeliveryManager.GoodsDimension.BIG : DeliveryManager.GoodsDimension.LITTLE;
+            fragility[i] = distances[i] <= 30 && (i & 2) == 0;
+        }
+    }
+
+    private int next() {
+        return position++ & MASK;
+    }
+
+    @Benchmark
+    public BigDecimal hardCodedGetCost() throws InvalidDeliveryException {
+        int i = next();
+        return deliveryManager.getCost(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    public BigDecimal rulesGetCost() throws InvalidDeliveryException {
+        int i = next();
+        return rules.getCost(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    public long hardCodedGetCostInKopecks() throws InvalidDeliveryException {
+        int i = next();
+        return deliveryManager.getCostInKopecks(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    public long rulesGetCostInKopecks() throws InvalidDeliveryException {
+        int i = next();
+        return rules.getCostInKopecks(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    public long ruleBasedDeliveryManagerGetCostInKopecks() throws InvalidDeliveryException {
+        int i = next();
+        return ruleBasedDeliveryManager.getCostInKopecks(distances[i], goodsDimensions[i], fragility[i], workloads[i]);
+    }
+
+    @Benchmark
+    public long rulesConstantHandle() throws Throwable {
+        int i = next();
+        return Math.max((long) COST.invokeExact(distances[i], goodsDimensions[i].ordinal(), fragility[i], workloads[i],
+                NO_ATTRIBUTES), MIN_COST);
+    }
+
+}
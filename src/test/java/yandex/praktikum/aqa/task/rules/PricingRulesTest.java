@@ -0,0 +1,299 @@
+package yandex.praktikum.aqa.task.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.DeliveryQuote;
+import yandex.praktikum.aqa.task.RejectionReason;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+import yandex.praktikum.aqa.task.metrics.PricingMetrics;
+import yandex.praktikum.aqa.task.utils.DeliveryCostModel;
+import yandex.praktikum.aqa.task.utils.Utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PricingRulesTest {
+
+    static final String ATTRIBUTE_RULES = "version 9\n"
+            + "attribute hour\n"
+            + "attribute region: MOSCOW, KAZAN, OTHER\n"
+            + "attribute size: S, M, L, XL\n"
+            + "reject GOODS_DIMENSION_ABSENT \"XL goods are not delivered to Kazan\" if size = XL and region = KAZAN\n"
+            + "reject FRAGILE_GOODS_BEYOND_LIMIT if fragile and distance > 30\n"
+            + "add distance: 300 if distance > 30, 200 if distance > 10, 100 if distance > 2, 50\n"
+            + "add goods: 200 if dimension = BIG, 100\n"
+            + "add fragility: 300 if fragile, 0\n"
+            + "add size: 500 if size = XL, 250 if size = L, 0\n"
+            + "add night: 150 if hour >= 22 or hour < 6, 0\n"
+            + "multiply workload: 1.6 if workload >= 80, 1.4 if workload >= 60, 1.2 if workload >= 40, 1\n"
+            + "multiply region: 1.25 if region = MOSCOW, 1\n"
+            + "min 400\n";
+
+    @TempDir
+    Path directory;
+
+    private static final DeliveryManager.GoodsDimension[] GOODS_DIMENSIONS = {
+            null, DeliveryManager.GoodsDimension.BIG, DeliveryManager.GoodsDimension.LITTLE};
+
+    /**
+     * @return cost (rub) or rejection reason
+     */
+    private static Object quote(PricingRules rules, double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                boolean isFragileGoods, int deliveryServiceWorkload) {
+        try {
+            return rules.getCost(distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        } catch (InvalidDeliveryException e) {
+            return e.getReason();
+        }
+    }
+
+    /**
+     * @return cost (rub) or rejection reason
+     */
+    private static Object quote(DeliveryManager deliveryManager, double distance,
+                                DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                                int deliveryServiceWorkload) {
+        DeliveryQuote deliveryQuote = deliveryManager.quote(distance, goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+        return deliveryQuote.isAccepted() ? BigDecimal.valueOf(deliveryQuote.getCostInKopecks(), 2)
+                : deliveryQuote.getRejectionReason();
+    }
+
+    private static void assertSameQuote(PricingRules rules, DeliveryManager deliveryManager, double distance,
+                                        DeliveryManager.GoodsDimension goodsDimension, boolean isFragileGoods,
+                                        int deliveryServiceWorkload, String message) {
+        Object quote = quote(rules, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload);
+        assertEquals(quote(deliveryManager, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload), quote,
+                message);
+        BigDecimal modelCost = DeliveryCostModel.getCost(distance, goodsDimension, isFragileGoods,
+                deliveryServiceWorkload);
+        if (modelCost != null) {
+            assertEquals(modelCost, quote, message);
+        } else {
+            assertTrue(quote instanceof RejectionReason, message);
+        }
+    }
+
+    @Test
+    @DisplayName("Default rules quote and reject as the default tariff and the cost model on tier boundaries and random cases")
+    void defaultRulesTest() throws InvalidTariffException {
+        PricingRules rules = PricingRules.parse(PricingRules.DEFAULT_RULES);
+        DeliveryManager deliveryManager = new DeliveryManager();
+        assertEquals(1, rules.getVersion());
+        for (double bound : new double[]{0, 2, 10, 30}) {
+            for (double distance : new double[]{bound - 0.01, Math.nextDown(bound), bound, Math.nextUp(bound), bound + 0.01}) {
+                for (DeliveryManager.GoodsDimension goodsDimension : GOODS_DIMENSIONS) {
+                    for (int deliveryServiceWorkload = -10; deliveryServiceWorkload <= 110; deliveryServiceWorkload++) {
+                        for (boolean isFragileGoods : new boolean[]{false, true}) {
+                            assertSameQuote(rules, deliveryManager, distance, goodsDimension, isFragileGoods,
+                                    deliveryServiceWorkload, distance + " " + goodsDimension + " " + isFragileGoods
+                                            + " " + deliveryServiceWorkload);
+                        }
+                    }
+                }
+            }
+        }
+        SplittableRandom random = new SplittableRandom(Utils.SEED);
+        for (int i = 0; i < 100_000; i++) {
+            double distance = Utils.generateNumberInRange(random, -10, 5000);
+            DeliveryManager.GoodsDimension goodsDimension = GOODS_DIMENSIONS[random.nextInt(GOODS_DIMENSIONS.length)];
+            boolean isFragileGoods = random.nextBoolean();
+            int deliveryServiceWorkload = random.nextInt(-20, 121);
+            assertSameQuote(rules, deliveryManager, distance, goodsDimension, isFragileGoods, deliveryServiceWorkload,
+                    "seed " + Utils.SEED + ", case " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("New surcharge and rejection rules are applied without code changes")
+    void newRulesTest() throws InvalidTariffException, InvalidDeliveryException {
+        PricingRules rules = PricingRules.parse("# peak surcharge\n"
+                + "version 7\n"
+                + "reject GOODS_DIMENSION_ABSENT \"Big goods are not delivered beyond 100km\""
+                + " if dimension = BIG and distance > 100\n"
+                + "reject FRAGILE_GOODS_BEYOND_LIMIT if fragile and (distance >= 50 or workload = 100)\n"
+                + "add base: 100\n"
+                + "add peak: 150 if (workload >= 90 or distance > 40) and not fragile, 0.5\n"
+                + "multiply little: 0.5 if dimension != BIG, 1\n"
+                + "multiply fragility: 1.333 if fragile, 1\n"
+                + "min 0.01\n");
+        assertEquals(7, rules.getVersion());
+        assertEquals(25000, rules.getCostInKopecks(45, DeliveryManager.GoodsDimension.BIG, false, 10));
+        assertEquals(12500, rules.getCostInKopecks(45, DeliveryManager.GoodsDimension.LITTLE, false, 10));
+        // 100.5 * 1.333 = 133.9665
+        assertEquals(13396, rules.getCostInKopecks(45, DeliveryManager.GoodsDimension.BIG, true, 10));
+        // 100.5 * 0.5 * 1.333 = 66.98325
+        assertEquals(new BigDecimal("66.98"), rules.getCost(5, DeliveryManager.GoodsDimension.LITTLE, true, 95));
+
+        InvalidDeliveryException rejection = assertThrows(InvalidDeliveryException.class,
+                () -> rules.getCostInKopecks(150, DeliveryManager.GoodsDimension.BIG, true, 100));
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, rejection.getReason());
+        assertEquals("Big goods are not delivered beyond 100km", rejection.getMessage());
+        rejection = assertThrows(InvalidDeliveryException.class,
+                () -> rules.getCostInKopecks(5, DeliveryManager.GoodsDimension.LITTLE, true, 100));
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, rejection.getReason());
+        assertEquals("FRAGILE_GOODS_BEYOND_LIMIT", rejection.getMessage());
+        rejection = assertThrows(InvalidDeliveryException.class,
+                () -> rules.getCostInKopecks(5, null, false, 10));
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, rejection.getReason());
+    }
+
+    @Test
+    @DisplayName("Compiled method handle returns rejected rule and cost before the minimal cost")
+    void methodHandleTest() throws Throwable {
+        PricingRules rules = PricingRules.parse(PricingRules.DEFAULT_RULES);
+        long cost = (long) rules.getMethodHandle().invokeExact(5.0, DeliveryManager.GoodsDimension.BIG.ordinal(), true, 65,
+                new int[0]);
+        assertEquals(84000, cost);
+        assertNull(rules.getRejectionReason(cost));
+        cost = (long) rules.getMethodHandle().invokeExact(1.0, DeliveryManager.GoodsDimension.LITTLE.ordinal(), false, 10,
+                new int[0]);
+        assertEquals(15000, cost);
+        assertEquals(40000, rules.getMinCostInKopecks());
+        cost = (long) rules.getMethodHandle().invokeExact(40.0, DeliveryManager.GoodsDimension.BIG.ordinal(), true, 65,
+                new int[0]);
+        assertEquals(PricingRules.REJECTED, cost);
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, rules.getRejectionReason(cost));
+    }
+
+    @Test
+    @DisplayName("Time window, region and size class surcharges are priced from attributes")
+    void attributesTest() throws InvalidTariffException, InvalidDeliveryException {
+        PricingRules rules = PricingRules.parse(ATTRIBUTE_RULES);
+        assertEquals(Arrays.asList("hour", "region", "size"), rules.getAttributeNames());
+        assertEquals(1, rules.getAttributeIndex("region"));
+        assertEquals(2, rules.getAttributeCode("region", "OTHER"));
+        assertEquals(3, rules.parseAttribute(2, "XL"));
+        assertEquals(23, rules.parseAttribute(0, "23"));
+        assertThrows(IllegalArgumentException.class, () -> rules.parseAttribute(1, "PARIS"));
+        assertThrows(IllegalArgumentException.class, () -> rules.getAttributeCode("hour", "NIGHT"));
+        assertThrows(IllegalArgumentException.class, () -> rules.getAttributeIndex("weekday"));
+
+        DeliveryManager.GoodsDimension big = DeliveryManager.GoodsDimension.BIG;
+        // 600 * 1.4
+        assertEquals(84000, rules.getCostInKopecks(5.5, big, true, 65, new int[]{12, 2, 0}));
+        // (600 + 150) * 1.4 * 1.25
+        assertEquals(131250, rules.getCostInKopecks(5.5, big, true, 65, new int[]{23, 0, 0}));
+        // (600 + 250 + 150) * 1.4
+        assertEquals(140000, rules.getCostInKopecks(5.5, big, true, 65, new int[]{3, 1, 2}));
+        // absent attributes are zeros: night in Moscow
+        assertEquals(131250, rules.getCostInKopecks(5.5, big, true, 65));
+        InvalidDeliveryException rejection = assertThrows(InvalidDeliveryException.class,
+                () -> rules.getCostInKopecks(5.5, big, false, 65, new int[]{12, 1, 3}));
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, rejection.getReason());
+        assertEquals("XL goods are not delivered to Kazan", rejection.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> rules.getCostInKopecks(5.5, big, true, 65, new int[]{12}));
+    }
+
+    @Test
+    @DisplayName("Delivery manager prices quotes and batches with rules loaded from file")
+    void deliveryManagerTest() throws IOException, InvalidTariffException, InvalidDeliveryException {
+        Path file = directory.resolve("pricing.rules");
+        Files.write(file, ATTRIBUTE_RULES.getBytes(StandardCharsets.UTF_8));
+        PricingRules rules = PricingRules.load(file);
+        DeliveryManager deliveryManager = new DeliveryManager();
+        PricingMetrics metrics = new PricingMetrics(1);
+        deliveryManager.setPricingMetrics(metrics);
+        deliveryManager.setPricingRules(rules);
+        assertSame(rules, deliveryManager.getPricingRules());
+
+        DeliveryManager.GoodsDimension big = DeliveryManager.GoodsDimension.BIG;
+        int[] attributes = {23, rules.getAttributeCode("region", "MOSCOW"), rules.getAttributeCode("size", "S")};
+        assertEquals(new BigDecimal("1312.50"), deliveryManager.getCost(5.5, big, true, 65, attributes));
+        DeliveryQuote quote = deliveryManager.quote(5.5, big, true, 65, new int[]{3, 1, 2});
+        assertEquals(140000, quote.getCostInKopecks());
+        assertEquals(9, quote.getTariffVersion());
+        // (50 + 100) * 1.25 is raised to the minimal cost
+        assertEquals(40000, deliveryManager.getCostInKopecks(1, DeliveryManager.GoodsDimension.LITTLE, false, 10,
+                new int[]{12, 0, 0}));
+        quote = deliveryManager.quote(5.5, big, false, 65, new int[]{12, 1, 3});
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, quote.getRejectionReason());
+        assertEquals(9, quote.getTariffVersion());
+        InvalidDeliveryException rejection = assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCostInKopecks(40, big, true, 65, attributes));
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, rejection.getReason());
+        rejection = assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCostInKopecks(5, null, true, 65, attributes));
+        assertEquals(RejectionReason.GOODS_DIMENSION_ABSENT, rejection.getReason());
+        rejection = assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCostInKopecks(40, null, true, 65, attributes));
+        assertEquals(RejectionReason.FRAGILE_GOODS_BEYOND_LIMIT, rejection.getReason());
+        deliveryManager.setStacklessRejections(true);
+        assertSame(assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCostInKopecks(40, big, true, 65, attributes)),
+                assertThrows(InvalidDeliveryException.class,
+                        () -> deliveryManager.getCostInKopecks(45, big, true, 10, attributes)));
+        assertEquals(3, metrics.getSnapshot().getQuotes());
+        assertEquals(1, metrics.getSnapshot().getMinCostQuotes());
+        assertEquals(6, metrics.getSnapshot().getRejections());
+
+        long[] costs = new long[4];
+        byte[] statuses = new byte[4];
+        deliveryManager.getCostsInKopecks(new double[]{5.5, 40, 5, 1},
+                new byte[]{0, 1, DeliveryManager.NO_GOODS_DIMENSION, 1}, new boolean[]{true, true, false, false},
+                new int[]{65, 10, 10, 10}, costs, statuses);
+        assertEquals(Arrays.toString(new long[]{131250, 0, 0, 40000}), Arrays.toString(costs));
+        assertEquals(Arrays.toString(new byte[]{DeliveryManager.STATUS_OK,
+                        DeliveryManager.STATUS_FRAGILE_GOODS_BEYOND_LIMIT, DeliveryManager.STATUS_GOODS_DIMENSION_ABSENT,
+                        DeliveryManager.STATUS_OK}),
+                Arrays.toString(statuses));
+
+        deliveryManager.setPricingRules(null);
+        quote = deliveryManager.quote(5.5, big, true, 65, attributes);
+        assertEquals(84000, quote.getCostInKopecks());
+        assertEquals(deliveryManager.getTariff().getVersion(), quote.getTariffVersion());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "add distance: 300 if distance > 30, 50",
+            "version 1\nversion 2",
+            "version 1\nadd distance: 300 if distance > 30 50",
+            "version 1\nadd distance: 300 if distance ~ 30, 50",
+            "version 1\nadd goods: 200 if dimension = HUGE, 100",
+            "version 1\nadd goods: 200 if dimension > BIG, 100",
+            "version 1\nadd goods: 200 if weight > 10, 100",
+            "version 1\nadd goods: -200",
+            "version 1\nadd goods: 200.001",
+            "version 1\nmultiply workload: -1.6",
+            "version 1\nreject TOO_FAR if distance > 100",
+            "version 1\nreject FRAGILE_GOODS_BEYOND_LIMIT \"beyond limit if fragile",
+            "version 1\nreject FRAGILE_GOODS_BEYOND_LIMIT if (fragile and distance > 30",
+            "version 1\ndiscount 10",
+            "version 1\nattribute distance",
+            "version 1\nattribute hour\nattribute hour",
+            "version 1\nattribute region: MOSCOW, MOSCOW",
+            "version 1\nattribute 5region",
+            "version 1\nadd night: 150 if hour >= 22, 0",
+            "version 1\nattribute region: MOSCOW\nadd region: 150 if region > MOSCOW, 0",
+            "version 1\nattribute region: MOSCOW\nadd region: 150 if region = KAZAN, 0"})
+    @DisplayName("Malformed rules are invalid")
+    void malformedRulesTest(String text) {
+        assertThrows(InvalidTariffException.class, () -> PricingRules.parse(text));
+    }
+
+    @Test
+    @DisplayName("Error message has the line number")
+    void errorLineNumberTest() {
+        InvalidTariffException exception = assertThrows(InvalidTariffException.class,
+                () -> PricingRules.parse("version 1\n\n# comment\nadd goods: 200 if dimension = HUGE, 100\n"));
+        assertTrue(exception.getMessage().startsWith("Pricing rules line 4: "), exception.getMessage());
+    }
+
+}
@@ -0,0 +1,234 @@
+package yandex.praktikum.aqa.task.tariff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+import yandex.praktikum.aqa.task.exceptions.InvalidTariffException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TariffTest {
+
+    private static final String DEFAULT_TARIFF = "version=1\n"
+            + "distance.short.cost=50\n"
+            + "distance.medium.cost=100\n"
+            + "distance.long.cost=200\n"
+            + "distance.longest.cost=300\n"
+            + "goods.big.cost=200\n"
+            + "goods.little.cost=100\n"
+            + "goods.fragile.cost=300\n"
+            + "workload.low.factor=1\n"
+            + "workload.medium.factor=1.2\n"
+            + "workload.high.factor=1.4\n"
+            + "workload.critical.factor=1.6\n"
+            + "min.cost=400\n"
+            + "fragile.distance.limit=30\n";
+
+    private static final String DOUBLED_TARIFF = "version=%d\n"
+            + "distance.short.cost=100\n"
+            + "distance.medium.cost=200\n"
+            + "distance.long.cost=400\n"
+            + "distance.longest.cost=600\n"
+            + "goods.big.cost=400\n"
+            + "goods.little.cost=200\n"
+            + "goods.fragile.cost=600\n"
+            + "workload.low.factor=1\n"
+            + "workload.medium.factor=1.2\n"
+            + "workload.high.factor=1.4\n"
+            + "workload.critical.factor=1.6\n"
+            + "min.cost=800\n"
+            + "fragile.distance.limit=50\n";
+
+    private static Tariff parse(String text) throws IOException, InvalidTariffException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(text));
+        return Tariff.fromProperties(properties);
+    }
+
+    private static String doubled(long version) {
+        return String.format(DOUBLED_TARIFF, version);
+    }
+
+    @Test
+    @DisplayName("Tariff file with default values prices as default tariff")
+    void defaultTariffFileTest() throws IOException, InvalidTariffException {
+        Tariff tariff = parse(DEFAULT_TARIFF);
+        assertEquals(1, tariff.getVersion());
+        for (double distance : new double[]{-1, 0, 2, 2.01, 10, 10.01, 30, 30.01, 100}) {
+            for (int goodsDimension = 0; goodsDimension < DeliveryManager.GoodsDimension.values().length; goodsDimension++) {
+                for (int deliveryServiceWorkload : new int[]{-1, 0, 39, 40, 59, 60, 79, 80, 100, 101}) {
+                    assertEquals(Tariff.DEFAULT.getCost(distance, goodsDimension, true, deliveryServiceWorkload),
+                            tariff.getCost(distance, goodsDimension, true, deliveryServiceWorkload));
+                    assertEquals(Tariff.DEFAULT.getCost(distance, goodsDimension, false, deliveryServiceWorkload),
+                            tariff.getCost(distance, goodsDimension, false, deliveryServiceWorkload));
+                }
+            }
+        }
+        assertEquals("Impossible to delivery fragile goods beyond 30km", tariff.getFragileGoodsRejectionMessage());
+    }
+
+    @Test
+    @DisplayName("Tariff with fractional factor rounds cost down to kopecks")
+    void fractionalFactorTest() throws IOException, InvalidTariffException {
+        Tariff tariff = parse(DEFAULT_TARIFF.replace("workload.critical.factor=1.6", "workload.critical.factor=1.333"));
+        // (200 + 200 + 300) * 1.333 = 933.1
+        assertEquals(93310, tariff.getCost(25, DeliveryManager.GoodsDimension.BIG.ordinal(), true, 90));
+        tariff = parse(DEFAULT_TARIFF.replace("workload.critical.factor=1.6", "workload.critical.factor=1.33333"));
+        // (200 + 200 + 300) * 1.33333 = 933.331
+        assertEquals(93333, tariff.getCost(25, DeliveryManager.GoodsDimension.BIG.ordinal(), true, 90));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"version=1\n", "min.cost=400\n", "goods.fragile.cost=300", "workload.low.factor=1\n"})
+    @DisplayName("Tariff without required value is invalid")
+    void absentValueTest(String line) {
+        assertThrows(InvalidTariffException.class, () -> parse(DEFAULT_TARIFF.replace(line, "")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"min.cost=-400", "min.cost=four hundred", "version=-1", "version=first"})
+    @DisplayName("Tariff with malformed or negative value is invalid")
+    void invalidValueTest(String line) {
+        String key = line.substring(0, line.indexOf('='));
+        String text = DEFAULT_TARIFF.replaceAll(key.replace(".", "\\.") + "=[^\n]*", line);
+        assertThrows(InvalidTariffException.class, () -> parse(text));
+    }
+
+    @Test
+    @DisplayName("Only newer tariff is published")
+    void publishNewerTariffTest() throws IOException, InvalidTariffException {
+        TariffRegistry registry = new TariffRegistry(Tariff.DEFAULT);
+        Tariff tariff = parse(doubled(2));
+        registry.publish(tariff);
+        assertEquals(tariff, registry.getTariff());
+        assertThrows(InvalidTariffException.class, () -> registry.publish(parse(DEFAULT_TARIFF)));
+        assertEquals(tariff, registry.getTariff());
+    }
+
+    @Test
+    @DisplayName("Delivery manager quotes with published tariff")
+    void deliveryManagerTariffTest() throws IOException, InvalidTariffException, InvalidDeliveryException {
+        TariffRegistry registry = new TariffRegistry(Tariff.DEFAULT);
+        DeliveryManager deliveryManager = new DeliveryManager(registry);
+        assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCost(40, DeliveryManager.GoodsDimension.BIG, true, 65));
+        registry.publish(parse(doubled(2)));
+        assertEquals(new BigDecimal("1680.00"),
+                deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true, 65));
+        assertEquals(new BigDecimal("2240.00"),
+                deliveryManager.getCost(40, DeliveryManager.GoodsDimension.BIG, true, 65));
+        InvalidDeliveryException invalidDeliveryException = assertThrows(InvalidDeliveryException.class,
+                () -> deliveryManager.getCost(50.5, DeliveryManager.GoodsDimension.BIG, true, 65));
+        assertEquals("Impossible to delivery fragile goods beyond 50km", invalidDeliveryException.getMessage());
+    }
+
+    @Test
+    @DisplayName("Concurrent quotes never mix two tariffs")
+    void concurrentTariffSwapTest() throws Exception {
+        TariffRegistry registry = new TariffRegistry(Tariff.DEFAULT);
+        DeliveryManager deliveryManager = new DeliveryManager(registry);
+        AtomicInteger inconsistentQuotes = new AtomicInteger();
+        AtomicInteger quotes = new AtomicInteger();
+        // 840 RUB with even tariff versions, 1680 RUB with odd ones
+        deliveryManager.setQuoteEventSink((distance, goodsDimension, isFragileGoods, deliveryServiceWorkload, cost,
+                                           tariffVersion) -> {
+            quotes.incrementAndGet();
+            if (cost != (tariffVersion % 2 == 0 ? 84000 : 168000)) {
+                inconsistentQuotes.incrementAndGet();
+            }
+        });
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        deliveryManager.getCostInKopecks(5, DeliveryManager.GoodsDimension.BIG, true, 65);
+                    } catch (InvalidDeliveryException e) {
+                        inconsistentQuotes.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        Tariff[] tariffs = new Tariff[200];
+        for (int version = 1; version <= tariffs.length; version++) {
+            tariffs[version - 1] = parse(version % 2 == 0 ? DEFAULT_TARIFF.replace("version=1", "version=" + version)
+                    : doubled(version));
+        }
+        for (Tariff tariff : tariffs) {
+            registry.publish(tariff);
+            Thread.yield();
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(quotes.get() > 0);
+        assertEquals(0, inconsistentQuotes.get());
+    }
+
+    @Test
+    @DisplayName("Changed tariff file is published and invalid one is ignored")
+    void tariffFileWatcherTest(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("tariff.properties");
+        Files.write(file, DEFAULT_TARIFF.getBytes(StandardCharsets.ISO_8859_1));
+        TariffRegistry registry = new TariffRegistry(Tariff.DEFAULT);
+        try (TariffFileWatcher watcher = new TariffFileWatcher(file, registry)) {
+            assertEquals(1, registry.getTariff().getVersion());
+
+            replace(directory, file, doubled(2));
+            awaitVersion(registry, 2);
+            assertEquals(168000, registry.getTariff().getCost(5, DeliveryManager.GoodsDimension.BIG.ordinal(), true, 65));
+
+            replace(directory, file, doubled(3).replace("min.cost=800", "min.cost=-1"));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (watcher.getLastReloadError() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(watcher.getLastReloadError());
+            assertEquals(2, registry.getTariff().getVersion());
+
+            replace(directory, file, doubled(4));
+            awaitVersion(registry, 4);
+            assertFalse(watcher.reload());
+        }
+    }
+
+    private static void replace(Path directory, Path file, String text) throws IOException {
+        Path temporaryFile = Files.createTempFile(directory, "tariff", ".tmp");
+        Files.write(temporaryFile, text.getBytes(StandardCharsets.ISO_8859_1));
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitVersion(TariffRegistry registry, long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (registry.getTariff().getVersion() != version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(version, registry.getTariff().getVersion());
+    }
+
+}
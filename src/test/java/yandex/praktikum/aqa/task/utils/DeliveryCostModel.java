@@ -0,0 +1,55 @@
+package yandex.praktikum.aqa.task.utils;
+
+import yandex.praktikum.aqa.task.DeliveryManager;
+
+import java.math.BigDecimal;
+
+import static java.math.BigDecimal.ROUND_FLOOR;
+
+/**
+ * Reference model of delivery cost written straight from the pricing rules, independent of the tariff matrix
+ */
+public class DeliveryCostModel {
+
+    private static final BigDecimal MIN_COST = BigDecimal.valueOf(400);
+
+    /**
+     * Expected delivery cost
+     *
+     * @param distance                  - distance to destination (km)
+     * @param goodsDimension            - goods dimension (little/big)
+     * @param isFragileGoods            - flag for fragile goods (true/false)
+     * @param deliveryServiceWorkload   - delivery service workload in percents (0-100)
+     * @return cost (rub), null when the delivery must be rejected
+     */
+    public static BigDecimal getCost(double distance, DeliveryManager.GoodsDimension goodsDimension,
+                                     boolean isFragileGoods, int deliveryServiceWorkload) {
+        if (goodsDimension == null || isFragileGoods && distance > 30) {
+            return null;
+        }
+        return getCostByDistance(distance)
+                .add(getCostByGoodsDimension(goodsDimension))
+                .add(getCostByFragileGoods(isFragileGoods))
+                .multiply(getDeliveryServiceWorkloadFactor(deliveryServiceWorkload))
+                .max(MIN_COST)
+                .setScale(2, ROUND_FLOOR);
+    }
+
+    private static BigDecimal getCostByDistance(double distance) {
+        return BigDecimal.valueOf(distance > 30 ? 300 : distance > 10 ? 200 : distance > 2 ? 100 : 50);
+    }
+
+    private static BigDecimal getCostByGoodsDimension(DeliveryManager.GoodsDimension goodsDimension) {
+        return BigDecimal.valueOf(goodsDimension == DeliveryManager.GoodsDimension.BIG ? 200 : 100);
+    }
+
+    private static BigDecimal getCostByFragileGoods(boolean isFragileGoods) {
+        return BigDecimal.valueOf(isFragileGoods ? 300 : 0);
+    }
+
+    private static BigDecimal getDeliveryServiceWorkloadFactor(int deliveryServiceWorkload) {
+        return new BigDecimal(deliveryServiceWorkload >= 80 ? "1.6" : deliveryServiceWorkload >= 60 ? "1.4"
+                : deliveryServiceWorkload >= 40 ? "1.2" : "1");
+    }
+
+}
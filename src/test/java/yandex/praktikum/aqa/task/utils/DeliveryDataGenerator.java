@@ -0,0 +1,56 @@
+package yandex.praktikum.aqa.task.utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generators of delivery data within distance and delivery service workload tiers
+ */
+public class DeliveryDataGenerator {
+
+    public enum DistanceType {
+        SHORT, MEDIUM, LONG, LONGEST;
+    }
+
+    public enum DSWType {
+        LOW, MEDIUM, HIGH, HIGHEST;
+    }
+
+    private static final double GREATEST_DISTANCE = 5000;
+
+    public static double generateDistance(DistanceType distanceType) {
+        return generateDistance(Utils.split(), distanceType);
+    }
+
+    public static double generateDistance(SplittableRandom random, DistanceType distanceType) {
+        switch (distanceType) {
+            case SHORT:
+                return Utils.generateNumberInRange(random, 0, 2);
+            case MEDIUM:
+                return Utils.generateNumberInRange(random, 2, 10);
+            case LONG:
+                return Utils.generateNumberInRange(random, 10, 30);
+            case LONGEST:
+                return Utils.generateNumberInRange(random, 30, GREATEST_DISTANCE);
+        }
+        return 0;
+    }
+
+    public static int generateDeliveryServiceWorkload(DSWType deliveryServiceWorkloadType) {
+        return generateDeliveryServiceWorkload(Utils.split(), deliveryServiceWorkloadType);
+    }
+
+    public static int generateDeliveryServiceWorkload(SplittableRandom random, DSWType deliveryServiceWorkloadType) {
+        switch (deliveryServiceWorkloadType) {
+            case LOW:
+                return (int)Utils.generateNumberInRange(random, 0, 40);
+            case MEDIUM:
+                return (int)Utils.generateNumberInRange(random, 40, 60);
+            case HIGH:
+                return (int)Utils.generateNumberInRange(random, 60, 80);
+            case HIGHEST:
+                return (int)Utils.generateNumberInRange(random, 80, 100);
+        }
+        return 0;
+    }
+
+}
@@ -1,11 +1,31 @@
 package yandex.praktikum.aqa.task.utils;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class Utils {
 
+    /**
+     * Seed of all generated test data, run with -Ddelivery.seed=<seed> to reproduce a failure
+     */
+    public static final long SEED = Long.getLong("delivery.seed", System.nanoTime());
+
+    private static final SplittableRandom RANDOM = new SplittableRandom(SEED);
+
+    /**
+     * @return new generator, generators are split in the same order for the same {@link #SEED}
+     */
+    public static SplittableRandom split() {
+        synchronized (RANDOM) {
+            return RANDOM.split();
+        }
+    }
+
     public static double generateNumberInRange(double min, double max) {
-        return Math.round((min + new Random().nextDouble() * (max - min)) * 100) / 100.0;
+        return generateNumberInRange(split(), min, max);
+    }
+
+    public static double generateNumberInRange(SplittableRandom random, double min, double max) {
+        return Math.round((min + random.nextDouble() * (max - min)) * 100) / 100.0;
     }
 
-}
\ No newline at end of file
+}
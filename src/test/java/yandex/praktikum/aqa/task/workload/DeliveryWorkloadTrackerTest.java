@@ -0,0 +1,98 @@
+package yandex.praktikum.aqa.task.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import yandex.praktikum.aqa.task.DeliveryManager;
+import yandex.praktikum.aqa.task.exceptions.InvalidDeliveryException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeliveryWorkloadTrackerTest {
+
+    @Test
+    @DisplayName("Workload is in-flight deliveries in percents of capacity")
+    void workloadTest() {
+        DeliveryWorkloadTracker tracker = new DeliveryWorkloadTracker(8);
+        assertEquals(0, tracker.getDeliveryServiceWorkload());
+        for (int i = 0; i < 5; i++) {
+            tracker.deliveryStarted();
+        }
+        assertEquals(62, tracker.getDeliveryServiceWorkload());
+        tracker.setCapacity(4);
+        assertEquals(100, tracker.getDeliveryServiceWorkload());
+        tracker.deliveryFinished();
+        tracker.deliveryFinished();
+        assertEquals(75, tracker.getDeliveryServiceWorkload());
+        assertEquals(3, tracker.getInFlightDeliveries());
+        assertThrows(IllegalArgumentException.class, () -> tracker.setCapacity(0));
+    }
+
+    @Test
+    @DisplayName("Concurrently started and finished deliveries are all counted")
+    void concurrentWorkloadTest() throws InterruptedException {
+        DeliveryWorkloadTracker tracker = new DeliveryWorkloadTracker(1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    tracker.deliveryStarted();
+                    if (j % 4 != 0) {
+                        tracker.deliveryFinished();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100_000, tracker.getInFlightDeliveries());
+        assertEquals(100, tracker.getDeliveryServiceWorkload());
+    }
+
+    @Test
+    @DisplayName("Smoothed workload is average over the window")
+    void smoothedWorkloadTest() {
+        AtomicInteger workload = new AtomicInteger(50);
+        try (SmoothedWorkloadSource source = new SmoothedWorkloadSource(workload::get, 4, 1, TimeUnit.HOURS)) {
+            assertEquals(50, source.getDeliveryServiceWorkload());
+            workload.set(70);
+            source.sample();
+            assertEquals(55, source.getDeliveryServiceWorkload());
+            workload.set(50);
+            source.sample();
+            source.sample();
+            source.sample();
+            assertEquals(55, source.getDeliveryServiceWorkload());
+            source.sample();
+            assertEquals(50, source.getDeliveryServiceWorkload());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SmoothedWorkloadSource(workload::get, 5, 2,
+                TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Delivery manager quotes with live workload")
+    void deliveryManagerWorkloadTest() throws InvalidDeliveryException {
+        DeliveryManager deliveryManager = new DeliveryManager();
+        assertThrows(IllegalStateException.class,
+                () -> deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true));
+        DeliveryWorkloadTracker tracker = new DeliveryWorkloadTracker(10);
+        deliveryManager.setWorkloadSource(tracker);
+        assertEquals(new BigDecimal("600.00"), deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true));
+        for (int i = 0; i < 9; i++) {
+            tracker.deliveryStarted();
+        }
+        assertEquals(new BigDecimal("960.00"), deliveryManager.getCost(5, DeliveryManager.GoodsDimension.BIG, true));
+        assertEquals(96000, deliveryManager.getCostInKopecks(5, DeliveryManager.GoodsDimension.BIG, true));
+    }
+
+}